@@ -0,0 +1,56 @@
+package org.example.taskService.controller;
+
+import org.example.taskService.dto.TaskPage;
+import org.example.taskService.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The interval and direction dispatch of {@code GET /filtered}, with a service stub that returns a fixed
+ * page, so only the controller's own work (date arithmetic, branching, response wrapping) is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskIntervalDispatchBenchmark {
+
+    @Param({"today", "week", "month"})
+    private String interval;
+
+    @Param({"past", "future"})
+    private String direction;
+
+    private TaskController taskController;
+
+    @Setup
+    public void setup() {
+        TaskPage page = new TaskPage(List.of(), null);
+        TaskService taskService = (TaskService) Proxy.newProxyInstance(
+                TaskService.class.getClassLoader(),
+                new Class<?>[]{TaskService.class},
+                (proxy, method, args) -> method.getReturnType() == TaskPage.class ? page : null);
+        taskController = new TaskController(taskService, null, null, null, null);
+    }
+
+    @Benchmark
+    public ResponseEntity<TaskPage> dispatch() {
+        return taskController.getTasksByIntervalAndCompletionStatus(interval, false, direction, null, TaskService.DEFAULT_PAGE_SIZE, false, null);
+    }
+}
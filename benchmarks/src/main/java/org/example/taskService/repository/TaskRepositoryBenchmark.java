@@ -0,0 +1,104 @@
+package org.example.taskService.repository;
+
+import org.example.taskService.ApplicationRunner;
+import org.example.taskService.dto.TaskResponse;
+import org.example.taskService.model.Task;
+import org.example.taskService.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keyset page queries of {@link TaskRepository} against an in-process H2 database seeded with tasks
+ * spread over two months around a fixed date. Absolute numbers are not comparable with PostgreSQL;
+ * the benchmark is meant to catch regressions in the query and projection code between releases.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskRepositoryBenchmark {
+    private static final LocalDateTime NOW = LocalDateTime.of(2023, 10, 10, 12, 0);
+
+    @Param({"10000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private Pageable pageable;
+    private TaskResponse middleOfMonth;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(ApplicationRunner.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.sql.init.mode=never",
+                        "--task.cache.enabled=false",
+                        "--logging.level.root=warn");
+        taskRepository = context.getBean(TaskRepository.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        List<Task> tasks = new ArrayList<>(rows);
+        long minutesPerTask = Math.max(1, 60L * 24 * 60 / rows);
+        for (int i = 0; i < rows; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setDescription("Description of task " + i);
+            task.setDate(NOW.minusDays(30).plusMinutes(i * minutesPerTask));
+            task.setCompleted(i % 2 == 0);
+            tasks.add(task);
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> taskRepository.bulkInsert(tasks));
+
+        pageable = PageRequest.ofSize(TaskService.DEFAULT_PAGE_SIZE + 1);
+        middleOfMonth = taskRepository.findPage(Task.DEFAULT_OWNER, NOW.minusDays(15), NOW, false, PageRequest.ofSize(1)).get(0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TaskResponse> firstPageOfMonth() {
+        return readOnlyTransaction.execute(status ->
+                taskRepository.findPage(Task.DEFAULT_OWNER, NOW.minusMonths(1), NOW, false, pageable));
+    }
+
+    @Benchmark
+    public List<TaskResponse> pageAfterCursor() {
+        return readOnlyTransaction.execute(status ->
+                taskRepository.findPageAfter(Task.DEFAULT_OWNER, NOW.minusMonths(1), NOW, false,
+                        middleOfMonth.getDate(), middleOfMonth.getId(), pageable));
+    }
+}
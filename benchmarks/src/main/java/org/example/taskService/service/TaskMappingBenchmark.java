@@ -0,0 +1,99 @@
+package org.example.taskService.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.taskService.config.TaskCacheProperties;
+import org.example.taskService.config.TaskFeedProperties;
+import org.example.taskService.dto.TaskBatchItemResult;
+import org.example.taskService.dto.TaskCreationRequest;
+import org.example.taskService.dto.TaskResponse;
+import org.example.taskService.model.Task;
+import org.example.taskService.repository.TaskDailyCountRepository;
+import org.example.taskService.repository.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request to entity to {@link TaskResponse} mapping of {@link TaskServiceImpl#createTask} and
+ * {@link TaskServiceImpl#createTasks}, with repositories that only hand out ids, so no database work is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskMappingBenchmark {
+
+    @Param({"1", "50", "500"})
+    private int size;
+
+    private TaskService taskService;
+    private List<TaskCreationRequest> requests;
+    private long nextId;
+
+    @Setup
+    public void setup() {
+        taskService = new TaskServiceImpl(taskRepository(), taskDailyCountRepository(), null,
+                new TaskChangeVersion(new TaskCacheProperties()),
+                new TaskChangeFeed(new TaskFeedProperties(), new SimpleMeterRegistry()));
+        requests = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            requests.add(new TaskCreationRequest("Task " + i, "Description of task " + i));
+        }
+    }
+
+    @Benchmark
+    public TaskResponse createOne() {
+        return taskService.createTask(requests.get(0));
+    }
+
+    @Benchmark
+    public List<TaskBatchItemResult> createList() {
+        return taskService.createTasks(requests);
+    }
+
+    @SuppressWarnings("unchecked")
+    private TaskRepository taskRepository() {
+        return stub(TaskRepository.class, (proxy, method, args) -> switch (method.getName()) {
+            case "save" -> withId((Task) args[0]);
+            case "saveAll" -> {
+                ((List<Task>) args[0]).forEach(this::withId);
+                yield args[0];
+            }
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private TaskDailyCountRepository taskDailyCountRepository() {
+        return stub(TaskDailyCountRepository.class, (proxy, method, args) -> {
+            if (method.getName().equals("addToDate")) {
+                return null;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    private Task withId(Task task) {
+        task.setId(++nextId);
+        return task;
+    }
+
+    private static <T> T stub(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.taskService.service;
+
+import org.example.taskService.ApplicationRunner;
+import org.example.taskService.model.Task;
+import org.example.taskService.repository.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-task toggles from many concurrent callers, one transaction per toggle versus group commit through
+ * {@link TaskToggleCoalescer}, against an in-process H2 database. H2 does not sync its log on commit the way
+ * PostgreSQL does, so the gain measured here understates the gain on a real database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class TaskToggleCoalescingBenchmark {
+
+    @Param({"false", "true"})
+    private boolean coalescing;
+
+    @Param({"200"})
+    private int tasks;
+
+    private ConfigurableApplicationContext context;
+    private TaskToggleCoalescer coalescer;
+    private long[] ids;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(ApplicationRunner.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:toggles;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--spring.sql.init.mode=never",
+                        "--task.cache.enabled=false",
+                        "--task.archive.enabled=false",
+                        "--task.toggle.coalescing-enabled=" + coalescing,
+                        "--logging.level.root=warn");
+        coalescer = context.getBean(TaskToggleCoalescer.class);
+
+        List<Task> seeded = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            Task task = new Task();
+            task.setTitle("Checklist item " + i);
+            task.setDescription("Toggled by the benchmark");
+            task.setDate(LocalDateTime.now());
+            seeded.add(task);
+        }
+        ids = context.getBean(TaskRepository.class).saveAll(seeded).stream().mapToLong(Task::getId).toArray();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void toggle() {
+        coalescer.toggle(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+}
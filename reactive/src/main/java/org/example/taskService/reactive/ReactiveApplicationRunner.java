@@ -0,0 +1,11 @@
+package org.example.taskService.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveApplicationRunner {
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveApplicationRunner.class, args);
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.taskService.reactive.advice;
+
+import org.example.taskService.advice.ErrorResponse;
+import org.example.taskService.exception.InvalidIntervalException;
+import org.example.taskService.exception.InvalidOwnerException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(InvalidIntervalException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidIntervalException(InvalidIntervalException e) {
+        ErrorResponse errorResponse = new ErrorResponse(e.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidOwnerException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidOwnerException(InvalidOwnerException e) {
+        ErrorResponse errorResponse = new ErrorResponse(e.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+}
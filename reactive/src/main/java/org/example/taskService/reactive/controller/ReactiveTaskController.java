@@ -0,0 +1,93 @@
+package org.example.taskService.reactive.controller;
+
+import org.example.taskService.dto.TaskResponse;
+import org.example.taskService.exception.InvalidIntervalException;
+import org.example.taskService.exception.InvalidOwnerException;
+import org.example.taskService.reactive.service.ReactiveTaskService;
+import org.example.taskService.service.TaskOwnerContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Same paths and parameters as the servlet {@code TaskController} reads, but each response is one stream of
+ * tasks instead of cursor pages: {@code application/x-ndjson} writes and flushes a line per task as it is read,
+ * {@code application/json} writes a single array. {@code limit} is optional and caps the number of tasks.
+ * Like the servlet application, requests read the tasks of the owner in {@code X-Task-Owner}, or of the default owner.
+ */
+@RestController
+@RequestMapping(value = "/api/v1/tasks", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+public class ReactiveTaskController {
+    private static final String NO_LIMIT = "" + Long.MAX_VALUE;
+    private static final String OWNER_HEADER = "X-Task-Owner";
+
+    private final ReactiveTaskService taskService;
+
+    @Autowired
+    public ReactiveTaskController(ReactiveTaskService taskService) {
+        this.taskService = taskService;
+    }
+
+    @GetMapping
+    public Flux<TaskResponse> getTasksByDateAndCompletionStatus(
+            @RequestHeader(name = OWNER_HEADER, defaultValue = TaskOwnerContext.DEFAULT_OWNER) String owner,
+            @RequestParam LocalDateTime date,
+            @RequestParam boolean completed,
+            @RequestParam(defaultValue = NO_LIMIT) long limit) {
+        return taskService.getTasksByDateAndCompletionStatus(validOwner(owner), date, completed, limit);
+    }
+
+    @GetMapping("/range")
+    public Flux<TaskResponse> getTasksByDateRangeAndCompletionStatus(
+            @RequestHeader(name = OWNER_HEADER, defaultValue = TaskOwnerContext.DEFAULT_OWNER) String owner,
+            @RequestParam LocalDateTime start,
+            @RequestParam LocalDateTime end,
+            @RequestParam boolean completed,
+            @RequestParam(defaultValue = NO_LIMIT) long limit) {
+        return taskService.getTasksByDateRangeAndCompletionStatus(validOwner(owner), start, end, completed, limit);
+    }
+
+    @GetMapping("/filtered")
+    public Flux<TaskResponse> getTasksByIntervalAndCompletionStatus(
+            @RequestHeader(name = OWNER_HEADER, defaultValue = TaskOwnerContext.DEFAULT_OWNER) String owner,
+            @RequestParam(required = false) String interval,
+            @RequestParam boolean completed,
+            @RequestParam(required = false) String direction,
+            @RequestParam(defaultValue = NO_LIMIT) long limit) {
+
+        if ("today".equals(interval)) {
+            LocalDate today = LocalDate.now();
+            return taskService.getTasksByDateRangeAndCompletionStatus(validOwner(owner), today.atStartOfDay(), today.atTime(LocalTime.MAX), completed, limit);
+        } else if ("week".equals(interval)) {
+            if ("future".equals(direction)) {
+                return taskService.getUpcomingTasksByWeekAndCompletionStatus(validOwner(owner), completed, limit);
+            } else {
+                return taskService.getTasksByWeekAndCompletionStatus(validOwner(owner), completed, limit);
+            }
+        } else if ("month".equals(interval)) {
+            if ("future".equals(direction)) {
+                return taskService.getUpcomingTasksByMonthAndCompletionStatus(validOwner(owner), completed, limit);
+            } else {
+                return taskService.getTasksByMonthAndCompletionStatus(validOwner(owner), completed, limit);
+            }
+        } else {
+            throw new InvalidIntervalException("Invalid interval value: " + interval);
+        }
+    }
+
+    private static String validOwner(String owner) {
+        if (!TaskOwnerContext.isValid(owner)) {
+            throw new InvalidOwnerException(owner);
+        }
+        return owner;
+    }
+}
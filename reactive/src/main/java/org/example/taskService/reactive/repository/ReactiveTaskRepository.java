@@ -0,0 +1,44 @@
+package org.example.taskService.reactive.repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.example.taskService.dto.TaskResponse;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * The list query of {@code TaskRepository.findPage} over R2DBC, restricted to one owner like it. Rows are fetched {@value #FETCH_SIZE} at a time
+ * as the subscriber requests them, so a slow client holds the database cursor back instead of the whole window
+ * being buffered in memory.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveTaskRepository {
+    static final int FETCH_SIZE = 256;
+
+    private final DatabaseClient databaseClient;
+
+    public Flux<TaskResponse> findByOwnerAndDateBetweenAndCompleted(String owner, LocalDateTime start, LocalDateTime end,
+                                                                    boolean completed, long limit) {
+        return databaseClient.sql("SELECT id, title, description, date, completed, version FROM tasks "
+                        + "WHERE owner = :owner AND date BETWEEN :start AND :end AND completed = :completed "
+                        + "ORDER BY date, id LIMIT :limit")
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .bind("owner", owner)
+                .bind("start", start)
+                .bind("end", end)
+                .bind("completed", completed)
+                .bind("limit", limit)
+                .map(ReactiveTaskRepository::toTaskResponse)
+                .all();
+    }
+
+    private static TaskResponse toTaskResponse(Readable row) {
+        return new TaskResponse(row.get("id", Long.class), row.get("title", String.class),
+                row.get("description", String.class), row.get("date", LocalDateTime.class),
+                Boolean.TRUE.equals(row.get("completed", Boolean.class)), row.get("version", Long.class));
+    }
+}
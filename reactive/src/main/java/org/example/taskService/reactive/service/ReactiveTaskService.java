@@ -0,0 +1,56 @@
+package org.example.taskService.reactive.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.taskService.dto.TaskResponse;
+import org.example.taskService.reactive.repository.ReactiveTaskRepository;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+/**
+ * The read side of {@code TaskServiceImpl} as streams instead of cursor pages. The rolling windows are computed
+ * when the stream is subscribed, not when it is assembled, so they match a servlet request made at the same time.
+ * Every read is restricted to one owner.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveTaskService {
+    private final ReactiveTaskRepository taskRepository;
+
+    public Flux<TaskResponse> getTasksByDateAndCompletionStatus(String owner, LocalDateTime date, boolean completed, long limit) {
+        return taskRepository.findByOwnerAndDateBetweenAndCompleted(owner, date, date, completed, limit);
+    }
+
+    public Flux<TaskResponse> getTasksByDateRangeAndCompletionStatus(String owner, LocalDateTime start, LocalDateTime end, boolean completed, long limit) {
+        return taskRepository.findByOwnerAndDateBetweenAndCompleted(owner, start, end, completed, limit);
+    }
+
+    public Flux<TaskResponse> getTasksByWeekAndCompletionStatus(String owner, boolean completed, long limit) {
+        return Flux.defer(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            return taskRepository.findByOwnerAndDateBetweenAndCompleted(owner, now.minusWeeks(1), now, completed, limit);
+        });
+    }
+
+    public Flux<TaskResponse> getTasksByMonthAndCompletionStatus(String owner, boolean completed, long limit) {
+        return Flux.defer(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            return taskRepository.findByOwnerAndDateBetweenAndCompleted(owner, now.minusMonths(1), now, completed, limit);
+        });
+    }
+
+    public Flux<TaskResponse> getUpcomingTasksByWeekAndCompletionStatus(String owner, boolean completed, long limit) {
+        return Flux.defer(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            return taskRepository.findByOwnerAndDateBetweenAndCompleted(owner, now, now.plusWeeks(1), completed, limit);
+        });
+    }
+
+    public Flux<TaskResponse> getUpcomingTasksByMonthAndCompletionStatus(String owner, boolean completed, long limit) {
+        return Flux.defer(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            return taskRepository.findByOwnerAndDateBetweenAndCompleted(owner, now, now.plusMonths(1), completed, limit);
+        });
+    }
+}
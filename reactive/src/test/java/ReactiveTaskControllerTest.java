@@ -0,0 +1,155 @@
+import org.example.taskService.dto.TaskResponse;
+import org.example.taskService.reactive.ReactiveApplicationRunner;
+import org.example.taskService.reactive.service.ReactiveTaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(classes = ReactiveApplicationRunner.class, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-tasks;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password="})
+@AutoConfigureWebTestClient
+class ReactiveTaskControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ReactiveTaskService taskService;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @BeforeEach
+    void setup() {
+        databaseClient.sql("CREATE TABLE IF NOT EXISTS tasks (id BIGINT PRIMARY KEY, owner VARCHAR(64) NOT NULL DEFAULT 'default', "
+                + "title VARCHAR(255) NOT NULL, "
+                + "description VARCHAR(4000), date TIMESTAMP, completed BOOLEAN NOT NULL, version BIGINT NOT NULL DEFAULT 0)")
+                .then().block();
+        databaseClient.sql("DELETE FROM tasks").then().block();
+        insertTask(1, "Three days ago", now.minusDays(3), false);
+        insertTask(2, "Two days ago", now.minusDays(2), false);
+        insertTask(3, "Done yesterday", now.minusDays(1), true);
+        insertTask(4, "Next week", now.plusDays(5), false);
+        databaseClient.sql("INSERT INTO tasks (id, owner, title, description, date, completed) "
+                        + "VALUES (5, 'someone-else', 'Not mine', 'Reactive', :date, false)")
+                .bind("date", now.minusDays(1))
+                .then()
+                .block();
+    }
+
+    @Test
+    void streamsIntervalAsNdjson() {
+        List<TaskResponse> tasks = webTestClient.get()
+                .uri("/api/v1/tasks/filtered?interval=week&completed=false")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(TaskResponse.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertEquals(List.of("Three days ago", "Two days ago"), tasks.stream().map(TaskResponse::getTitle).toList());
+    }
+
+    @Test
+    void returnsJsonArrayWithLimit() {
+        webTestClient.get()
+                .uri("/api/v1/tasks/range?start={start}&end={end}&completed=false&limit=2",
+                        now.minusMonths(1), now.plusMonths(1))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].title").isEqualTo("Three days ago")
+                .jsonPath("$[1].title").isEqualTo("Two days ago");
+    }
+
+    @Test
+    void filtersUpcomingTasks() {
+        webTestClient.get()
+                .uri("/api/v1/tasks/filtered?interval=week&direction=future&completed=false")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].title").isEqualTo("Next week");
+    }
+
+    @Test
+    void readsTheTasksOfTheRequestedOwner() {
+        webTestClient.get()
+                .uri("/api/v1/tasks/filtered?interval=week&completed=false")
+                .header("X-Task-Owner", "someone-else")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].title").isEqualTo("Not mine");
+    }
+
+    @Test
+    void rejectsInvalidOwner() {
+        webTestClient.get()
+                .uri("/api/v1/tasks/filtered?interval=week&completed=false")
+                .header("X-Task-Owner", "not an owner")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Invalid task owner: not an owner");
+    }
+
+    @Test
+    void rejectsInvalidInterval() {
+        webTestClient.get()
+                .uri("/api/v1/tasks/filtered?interval=year&completed=false")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Invalid interval value: year");
+    }
+
+    @Test
+    void emitsOnlyWhatIsRequested() {
+        StepVerifier.create(taskService.getTasksByMonthAndCompletionStatus("default", false, Long.MAX_VALUE), 0)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenRequest(1)
+                .assertNext(task -> assertEquals("Three days ago", task.getTitle()))
+                .thenRequest(1)
+                .assertNext(task -> assertEquals("Two days ago", task.getTitle()))
+                .thenCancel()
+                .verify();
+    }
+
+    private void insertTask(long id, String title, LocalDateTime date, boolean completed) {
+        databaseClient.sql("INSERT INTO tasks (id, title, description, date, completed) VALUES (:id, :title, 'Reactive', :date, :completed)")
+                .bind("id", id)
+                .bind("title", title)
+                .bind("date", date)
+                .bind("completed", completed)
+                .then()
+                .block();
+    }
+}
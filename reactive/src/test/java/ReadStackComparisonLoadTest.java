@@ -0,0 +1,221 @@
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.example.taskService.reactive.ReactiveApplicationRunner;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Drives the same {@code /filtered} read at high concurrency against the servlet application and this reactive
+ * one, both reading one H2 database over TCP, and prints throughput and p50/p99/p999 latency for each.
+ * <p>
+ * The load is closed-loop: {@code load.concurrency} clients each send their next request as soon as the previous
+ * one completes, so the result shows how many requests each stack sustains with that many in flight.
+ * The servlet application is started from its executable jar in a separate JVM, so run {@code mvn install} in the
+ * root project first. Runs only with {@code mvn test -Pload-test}; concurrency, duration and seed size are set with
+ * {@code -Dload.concurrency}, {@code -Dload.durationSeconds} and {@code -Dload.tasks}, and the connection pool
+ * size of both stacks with {@code -Dload.poolSize}.
+ */
+@Tag("load")
+class ReadStackComparisonLoadTest {
+    private static final int TASKS = Integer.getInteger("load.tasks", 10_000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 500);
+    private static final int POOL_SIZE = Integer.getInteger("load.poolSize", 10);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmupSeconds", 10);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.durationSeconds", 30);
+    private static final String SERVLET_JAR = System.getProperty("load.servlet.jar", "../target/testMaxim-1.0-SNAPSHOT.jar");
+    private static final String[] INTERVALS = {"today", "week", "month"};
+    private static final String[] DIRECTIONS = {"past", "future"};
+
+    @Test
+    void servletAndReactiveReadsUnderHighConcurrency() throws Exception {
+        Server database = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        int servletPort = freePort();
+        String jdbcUrl = "jdbc:h2:tcp://localhost:" + database.getPort() + "/mem:compare;DB_CLOSE_DELAY=-1";
+        Process servlet = startServlet(servletPort, jdbcUrl);
+        // r2dbc-h2 URLs cannot name a TCP server, so the pool is declared here instead of by spring.r2dbc.url
+        ConnectionFactory connectionFactory = new ConnectionPool(ConnectionPoolConfiguration.builder(
+                        new H2ConnectionFactory(H2ConnectionConfiguration.builder()
+                                .tcp("localhost", database.getPort(), "mem:compare")
+                                .username("sa")
+                                .build()))
+                .maxSize(POOL_SIZE)
+                .build());
+        try (ConfigurableApplicationContext reactive = new SpringApplicationBuilder(ReactiveApplicationRunner.class)
+                .initializers(context -> context.getBeanFactory().registerSingleton("connectionFactory", connectionFactory))
+                .run("--server.port=0")) {
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+            String servletUri = "http://localhost:" + servletPort + "/api/v1/tasks";
+            awaitStartup(client, servletUri, servlet);
+            seed(client, servletUri);
+            int reactivePort = ((WebServerApplicationContext) reactive).getWebServer().getPort();
+            String reactiveUri = "http://localhost:" + reactivePort + "/api/v1/tasks";
+
+            drive(client, servletUri, WARMUP_SECONDS);
+            LoadResult servletResult = drive(client, servletUri, DURATION_SECONDS);
+            drive(client, reactiveUri, WARMUP_SECONDS);
+            LoadResult reactiveResult = drive(client, reactiveUri, DURATION_SECONDS);
+
+            System.out.printf("%d concurrent clients, %d s%n", CONCURRENCY, DURATION_SECONDS);
+            System.out.printf("%-10s %10s %8s %10s %10s %10s%n", "stack", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms");
+            servletResult.print("servlet");
+            reactiveResult.print("reactive");
+            assertAll(
+                    () -> assertEquals(0, servletResult.errors(), "servlet errors"),
+                    () -> assertEquals(0, reactiveResult.errors(), "reactive errors"));
+        } finally {
+            servlet.destroy();
+            servlet.waitFor();
+            database.stop();
+        }
+    }
+
+    /**
+     * Same datasource pool size as the R2DBC pool, no page cache and no admission limits, so both stacks do the same
+     * database work.
+     */
+    private Process startServlet(int port, String jdbcUrl) throws Exception {
+        String h2Jar = new File(Server.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+        return new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Dloader.path=" + h2Jar,
+                "-cp", SERVLET_JAR,
+                "org.springframework.boot.loader.PropertiesLauncher",
+                "--server.port=" + port,
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.sql.init.mode=never",
+                "--task.cache.enabled=false",
+                "--task.archive.enabled=false",
+                "--task.admission.enabled=false")
+                .redirectErrorStream(true)
+                .redirectOutput(Files.createTempFile("servlet", ".log").toFile())
+                .start();
+    }
+
+    private void awaitStartup(HttpClient client, String baseUri, Process servlet) throws Exception {
+        HttpRequest probe = HttpRequest.newBuilder(URI.create(baseUri + "/summary")).build();
+        long deadline = System.nanoTime() + Duration.ofMinutes(2).toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!servlet.isAlive()) {
+                throw new IllegalStateException("servlet application exited with " + servlet.exitValue());
+            }
+            try {
+                if (client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (Exception e) {
+                // not listening yet
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("servlet application did not start");
+    }
+
+    private void seed(HttpClient client, String baseUri) throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < TASKS; i++) {
+            LocalDateTime date = now.minusDays(31).plusMinutes(i * (62L * 24 * 60 / TASKS));
+            ndjson.append("{\"title\":\"Load Task ").append(i)
+                    .append("\",\"description\":\"Seeded for the read stack comparison.\",\"date\":\"").append(date)
+                    .append("\",\"completed\":").append(i % 2 == 0).append("}\n");
+        }
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(baseUri + "/import"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(ndjson.toString()))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        assertEquals(200, response.statusCode());
+    }
+
+    private LoadResult drive(HttpClient client, String baseUri, int seconds) throws Exception {
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicInteger errors = new AtomicInteger();
+        long started = System.nanoTime();
+        long deadline = started + Duration.ofSeconds(seconds).toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENCY; i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        try {
+                            if (client.send(request(baseUri), HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies.add(System.nanoTime() - sent);
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new LoadResult(sorted, errors.get(), sorted.length / (elapsed / 1e9));
+    }
+
+    /**
+     * One page of 50 on both stacks, as JSON, over all interval and direction combinations.
+     */
+    private HttpRequest request(String baseUri) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return HttpRequest.newBuilder(URI.create(baseUri + "/filtered"
+                        + "?interval=" + INTERVALS[random.nextInt(INTERVALS.length)]
+                        + "&direction=" + DIRECTIONS[random.nextInt(DIRECTIONS.length)]
+                        + "&completed=" + random.nextBoolean()
+                        + "&limit=50"))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private int freePort() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record LoadResult(long[] sortedLatencies, int errors, double throughput) {
+
+        double percentileMillis(double quantile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(sortedLatencies.length - 1, Math.ceil(quantile * sortedLatencies.length) - 1);
+            return sortedLatencies[index] / 1e6;
+        }
+
+        void print(String stack) {
+            System.out.printf("%-10s %10.1f %8d %10.2f %10.2f %10.2f%n", stack, throughput, errors,
+                    percentileMillis(0.5), percentileMillis(0.99), percentileMillis(0.999));
+        }
+    }
+}
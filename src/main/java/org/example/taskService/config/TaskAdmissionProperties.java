@@ -0,0 +1,56 @@
+package org.example.taskService.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "task.admission")
+public class TaskAdmissionProperties {
+
+    /**
+     * Limits the expensive reads before they reach the controller; writes and other reads are never limited.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Sent in {@code Retry-After} with every 503.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Limits per route: {@code week} and {@code month} for the {@code /filtered} intervals, and {@code export}.
+     * Keep the sum of {@code max-concurrent} below the connection pool size, so writes always find a connection.
+     */
+    private Map<String, Limit> limits = new LinkedHashMap<>(Map.of(
+            "week", new Limit(3, 20, Duration.ofMillis(500)),
+            "month", new Limit(3, 20, Duration.ofMillis(500)),
+            "export", new Limit(1, 2, Duration.ofMillis(500))));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+
+        /**
+         * Requests of the route running at once.
+         */
+        private int maxConcurrent;
+
+        /**
+         * Requests waiting for a slot; further ones are rejected right away.
+         */
+        private int maxQueued;
+
+        /**
+         * How long a request may wait for a slot before it is rejected.
+         */
+        private Duration queueTimeout;
+
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.taskService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task.archive")
+public class TaskArchiveProperties {
+
+    /**
+     * Moves old completed tasks to {@code tasks_archive} on {@code task.archive.cron}.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Completed tasks dated longer ago than this are archived.
+     */
+    private Duration minAge = Duration.ofDays(90);
+
+    /**
+     * Tasks moved per transaction.
+     */
+    private int chunkSize = 1_000;
+
+    /**
+     * Pause between chunks, which leaves room for regular traffic while a large backlog is moved.
+     */
+    private Duration pauseBetweenChunks = Duration.ofMillis(200);
+
+    /**
+     * Upper bound of chunks per run; the rest is moved by the next run.
+     */
+    private int maxChunksPerRun = 500;
+
+}
@@ -0,0 +1,23 @@
+package org.example.taskService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task.cache")
+public class TaskCacheProperties {
+
+    private boolean enabled = true;
+
+    private long maximumSize = 10_000;
+
+    private Duration ttl = Duration.ofSeconds(30);
+
+    /**
+     * Interval windows are snapped to this step, so every request inside one step shares a cache entry.
+     */
+    private Duration windowGranularity = Duration.ofMinutes(1);
+
+}
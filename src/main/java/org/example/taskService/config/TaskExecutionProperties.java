@@ -0,0 +1,26 @@
+package org.example.taskService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task.execution")
+public class TaskExecutionProperties {
+
+    private Mode mode = Mode.PLATFORM;
+
+    /**
+     * Upper bound of requests that may hold a database connection at once in virtual mode.
+     * Zero means the maximum size of the connection pool.
+     */
+    private int maxConcurrentConnections = 0;
+
+    private Duration connectionAcquireTimeout = Duration.ofSeconds(30);
+
+    public enum Mode {
+        PLATFORM,
+        VIRTUAL
+    }
+}
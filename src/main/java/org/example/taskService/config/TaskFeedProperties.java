@@ -0,0 +1,27 @@
+package org.example.taskService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task.feed")
+public class TaskFeedProperties {
+
+    /**
+     * Events kept for clients that reconnect with {@code Last-Event-ID}; older ones get a resync instead.
+     */
+    private int historySize = 1000;
+
+    /**
+     * Events queued per subscriber. A subscriber that falls this far behind has its queue replaced by a resync.
+     */
+    private int subscriberBufferSize = 256;
+
+    /**
+     * Connections are closed after this long; {@code EventSource} clients reconnect and resume by themselves.
+     */
+    private Duration timeout = Duration.ofMinutes(30);
+
+}
@@ -0,0 +1,20 @@
+package org.example.taskService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "task.import")
+public class TaskImportProperties {
+
+    /**
+     * Rows loaded and committed per transaction.
+     */
+    private int chunkSize = 5_000;
+
+    /**
+     * Rejected rows listed in the report; the rest are only counted.
+     */
+    private int maxReportedRejections = 1_000;
+
+}
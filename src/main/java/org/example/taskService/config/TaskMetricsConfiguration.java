@@ -0,0 +1,53 @@
+package org.example.taskService.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Splits request latency into its parts. {@code http.server.requests} is the whole request, tagged with
+ * the {@code interval} and {@code direction} of {@code /filtered} calls; {@code spring.data.repository.invocations}
+ * and the Hibernate statistics cover the database; {@code task.service} is the service call including
+ * mapping; {@code task.http.serialization} is the time spent writing the JSON body.
+ */
+@Configuration
+public class TaskMetricsConfiguration {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public TaskRequestObservationConvention taskRequestObservationConvention() {
+        return new TaskRequestObservationConvention();
+    }
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   MeterRegistry meterRegistry) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                } finally {
+                    sample.stop(Timer.builder("task.http.serialization")
+                            .tag("type", (object instanceof MappingJacksonValue value ? value.getValue() : object).getClass().getSimpleName())
+                            .publishPercentileHistogram()
+                            .register(meterRegistry));
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.taskService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "task.partitioning")
+public class TaskPartitioningProperties {
+
+    /**
+     * Maintains monthly partitions of {@code tasks}. Requires PostgreSQL and a table converted with
+     * {@code db/migration/tasks-partitioning.sql}.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Months after the current one that always have a partition.
+     */
+    private int monthsAhead = 3;
+
+    /**
+     * Months of data kept before the current one; older partitions are dropped. Zero keeps everything.
+     */
+    private int retentionMonths = 0;
+
+}
@@ -0,0 +1,61 @@
+package org.example.taskService.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured data source with one that routes read-only transactions to the replicas in
+ * {@code task.replica.replicas}. The primary pool is still configured by {@code spring.datasource.*}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "task.replica.enabled", havingValue = "true")
+public class TaskReplicaConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource taskPrimaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("task-primary");
+        return primary;
+    }
+
+    /**
+     * Replica pools are not beans, so their metrics are bound here rather than by Spring Boot.
+     */
+    @Bean
+    public TaskRoutingDataSource taskRoutingDataSource(HikariDataSource taskPrimaryDataSource,
+                                                       DataSourceProperties dataSourceProperties,
+                                                       TaskReplicaProperties properties, MeterRegistry meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (TaskReplicaProperties.Replica replica : properties.getReplicas()) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("task-replica-" + replicas.size());
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.determineUsername());
+            pool.setPassword(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.determinePassword());
+            pool.setMaximumPoolSize(properties.getMaximumPoolSize());
+            pool.setReadOnly(true);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(pool);
+        }
+        return new TaskRoutingDataSource(taskPrimaryDataSource, replicas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(TaskRoutingDataSource taskRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(taskRoutingDataSource);
+    }
+}
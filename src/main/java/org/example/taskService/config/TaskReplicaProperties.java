@@ -0,0 +1,57 @@
+package org.example.taskService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "task.replica")
+public class TaskReplicaProperties {
+
+    /**
+     * Sends read-only transactions to {@code replicas} and everything else to {@code spring.datasource}.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Read-only copies of the primary database, used in turn.
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Connections per replica pool.
+     */
+    private int maximumPoolSize = 10;
+
+    /**
+     * After a client writes, its reads go to the primary for this long, so it sees its own changes
+     * despite replication lag. Should exceed the usual lag of the replicas.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /**
+     * Longest time a replica takes to apply a write. Until then, pages read from the replicas are not cached or
+     * tagged with a list ETag.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    @Data
+    public static class Replica {
+
+        private String url;
+
+        /**
+         * Defaults to {@code spring.datasource.username}.
+         */
+        private String username;
+
+        /**
+         * Defaults to {@code spring.datasource.password}.
+         */
+        private String password;
+
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.taskService.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+import java.util.Set;
+
+/**
+ * Adds the {@code interval} and {@code direction} request parameters to {@code http.server.requests}.
+ * Values outside the ones the API accepts are reported as {@code other}, so arbitrary input cannot
+ * create new time series; requests without the parameter report {@code none}.
+ */
+public class TaskRequestObservationConvention extends DefaultServerRequestObservationConvention {
+    private static final Set<String> INTERVALS = Set.of("today", "week", "month");
+    private static final Set<String> DIRECTIONS = Set.of("past", "future");
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        HttpServletRequest request = context.getCarrier();
+        return super.getLowCardinalityKeyValues(context).and(
+                parameter(request, "interval", INTERVALS),
+                parameter(request, "direction", DIRECTIONS));
+    }
+
+    private KeyValue parameter(HttpServletRequest request, String name, Set<String> knownValues) {
+        String value = request.getParameter(name);
+        if (value == null) {
+            return KeyValue.of(name, "none");
+        }
+        return KeyValue.of(name, knownValues.contains(value) ? value : "other");
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.taskService.config;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring assigning owners to shards. Every shard is placed at {@code virtualNodes} points of the
+ * ring and an owner belongs to the first shard point at or after its own hash, so adding a shard to N moves only
+ * about 1/(N + 1) of the owners, all of them to the new shard.
+ * <p>
+ * Points depend only on the shard names, so every instance with the same shard names computes the same ring.
+ */
+public class TaskShardRing {
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+    private final List<String> shards;
+
+    public TaskShardRing(Collection<String> shards, int virtualNodes) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("A shard ring needs at least one shard");
+        }
+        this.shards = List.copyOf(shards);
+        for (String shard : this.shards) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.putIfAbsent(hash(shard + "#" + i), shard);
+            }
+        }
+    }
+
+    public String shardFor(String owner) {
+        Map.Entry<Long, String> point = points.ceilingEntry(hash(owner));
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    private static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
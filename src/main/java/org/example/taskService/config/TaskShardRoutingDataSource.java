@@ -0,0 +1,81 @@
+package org.example.taskService.config;
+
+import org.example.taskService.service.TaskOwnerContext;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Hands out connections of the shard that holds the tasks of the current {@link TaskOwnerContext owner}, or of
+ * the shard chosen with {@link #callOnShard} by jobs that work through the shards one by one.
+ * <p>
+ * The {@link TaskOwnerContext#DEFAULT_OWNER default owner} always stays on the main shard, which already holds
+ * its tasks from before sharding was enabled. Work done outside a request, such as schema management and SQL
+ * initialization at startup, acts as that owner and so goes to the main shard as well.
+ * <p>
+ * The shard is picked when a connection is fetched, so the owner has to be set before a transaction starts and
+ * must not change within it. The pools of the additional shards are owned by this data source and closed with it.
+ */
+public class TaskShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    public static final String MAIN_SHARD = "main";
+    private static final ThreadLocal<String> SHARD = new ThreadLocal<>();
+
+    private final TaskShardRing ring;
+    private final Map<String, DataSource> shards;
+
+    public TaskShardRoutingDataSource(DataSource main, Map<String, DataSource> shards, TaskShardRing ring) {
+        this.ring = ring;
+        this.shards = shards;
+        Map<Object, Object> targets = new HashMap<>(shards);
+        targets.put(MAIN_SHARD, main);
+        setTargetDataSources(targets);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Runs {@code action} against {@code shard} regardless of the owner of the thread.
+     */
+    public static <T> T callOnShard(String shard, Supplier<T> action) {
+        String previous = SHARD.get();
+        SHARD.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                SHARD.set(previous);
+            } else {
+                SHARD.remove();
+            }
+        }
+    }
+
+    public String shardOf(String owner) {
+        return TaskOwnerContext.DEFAULT_OWNER.equals(owner) ? MAIN_SHARD : ring.shardFor(owner);
+    }
+
+    public List<String> shards() {
+        return ring.shards();
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource shard : shards.values()) {
+            if (shard instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String shard = SHARD.get();
+        return shard != null ? shard : shardOf(TaskOwnerContext.current());
+    }
+}
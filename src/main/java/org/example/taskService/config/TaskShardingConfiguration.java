@@ -0,0 +1,75 @@
+package org.example.taskService.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured data source with one that sends each owner's work to its shard. The main shard
+ * is still configured by {@code spring.datasource.*}. Cannot be combined with {@code task.replica.enabled}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "task.sharding.enabled", havingValue = "true")
+public class TaskShardingConfiguration {
+
+    public TaskShardingConfiguration(TaskReplicaProperties replicaProperties) {
+        if (replicaProperties.isEnabled()) {
+            throw new IllegalStateException("task.sharding.enabled and task.replica.enabled cannot both be set");
+        }
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource taskMainShardDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource main = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        main.setPoolName("task-shard-" + TaskShardRoutingDataSource.MAIN_SHARD);
+        return main;
+    }
+
+    /**
+     * Shard pools other than the main one are not beans, so their metrics are bound here rather than by Spring Boot.
+     */
+    @Bean
+    public TaskShardRoutingDataSource taskShardRoutingDataSource(HikariDataSource taskMainShardDataSource,
+                                                                 DataSourceProperties dataSourceProperties,
+                                                                 TaskShardingProperties properties, MeterRegistry meterRegistry) {
+        if (properties.getShards().containsKey(TaskShardRoutingDataSource.MAIN_SHARD)) {
+            throw new IllegalStateException("The shard name " + TaskShardRoutingDataSource.MAIN_SHARD
+                    + " is reserved for spring.datasource");
+        }
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        properties.getShards().forEach((name, shard) -> {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("task-shard-" + name);
+            pool.setJdbcUrl(shard.getUrl());
+            pool.setUsername(shard.getUsername() != null ? shard.getUsername() : dataSourceProperties.determineUsername());
+            pool.setPassword(shard.getPassword() != null ? shard.getPassword() : dataSourceProperties.determinePassword());
+            pool.setMaximumPoolSize(properties.getMaximumPoolSize());
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            shards.put(name, pool);
+        });
+        List<String> names = new ArrayList<>();
+        names.add(TaskShardRoutingDataSource.MAIN_SHARD);
+        names.addAll(shards.keySet());
+        return new TaskShardRoutingDataSource(taskMainShardDataSource, shards, new TaskShardRing(names, properties.getVirtualNodes()));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(TaskShardRoutingDataSource taskShardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(taskShardRoutingDataSource);
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.taskService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "task.sharding")
+public class TaskShardingProperties {
+
+    /**
+     * Spreads owners over {@code spring.datasource}, which is the shard named {@code main}, and {@code shards}.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Additional shard databases by name. Each one is prepared like the main database, with its own range of
+     * task ids, see {@code db/migration/tasks-sharding.sql}. Renaming a shard moves its owners to other shards.
+     */
+    private Map<String, Shard> shards = new LinkedHashMap<>();
+
+    /**
+     * Points per shard on the hash ring. More points spread owners more evenly.
+     */
+    private int virtualNodes = 1024;
+
+    /**
+     * Connections per additional shard pool. The main pool is configured by {@code spring.datasource.hikari}.
+     */
+    private int maximumPoolSize = 10;
+
+    @Data
+    public static class Shard {
+
+        private String url;
+
+        /**
+         * Defaults to {@code spring.datasource.username}.
+         */
+        private String username;
+
+        /**
+         * Defaults to {@code spring.datasource.password}.
+         */
+        private String password;
+
+    }
+}
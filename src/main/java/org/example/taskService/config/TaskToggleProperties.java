@@ -0,0 +1,27 @@
+package org.example.taskService.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "task.toggle")
+public class TaskToggleProperties {
+
+    /**
+     * Collects concurrent single-task toggles and commits them together instead of one transaction each.
+     */
+    private boolean coalescingEnabled = false;
+
+    /**
+     * How long the first toggle of a group waits for others; it bounds the latency added to every toggle.
+     */
+    private Duration coalescingWindow = Duration.ofMillis(5);
+
+    /**
+     * A group reaching this many toggles is committed right away without waiting for the window to end.
+     */
+    private int maxBatchSize = 256;
+
+}
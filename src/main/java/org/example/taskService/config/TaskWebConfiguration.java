@@ -0,0 +1,78 @@
+package org.example.taskService.config;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.RequiredArgsConstructor;
+import org.example.taskService.controller.TaskAdmissionInterceptor;
+import org.example.taskService.controller.TaskListEtagInterceptor;
+import org.example.taskService.controller.TaskOwnerInterceptor;
+import org.example.taskService.controller.TaskReadYourWritesInterceptor;
+import org.example.taskService.dto.TaskField;
+import org.example.taskService.dto.TaskResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class TaskWebConfiguration implements WebMvcConfigurer {
+    private final TaskOwnerInterceptor taskOwnerInterceptor;
+    private final TaskListEtagInterceptor taskListEtagInterceptor;
+    private final ObjectProvider<TaskAdmissionInterceptor> taskAdmissionInterceptor;
+    private final ObjectProvider<TaskReadYourWritesInterceptor> taskReadYourWritesInterceptor;
+
+    /**
+     * The owner is set first, since every later step may touch that owner's data. Admission comes after the ETag
+     * check, so a conditional read answered with 304 never waits for a slot.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(taskOwnerInterceptor)
+                .addPathPatterns("/api/v1/tasks", "/api/v1/tasks/**");
+        taskReadYourWritesInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor)
+                .addPathPatterns("/api/v1/tasks", "/api/v1/tasks/**"));
+        registry.addInterceptor(taskListEtagInterceptor)
+                .addPathPatterns("/api/v1/tasks", "/api/v1/tasks/filtered", "/api/v1/tasks/statistics");
+        taskAdmissionInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor)
+                .addPathPatterns("/api/v1/tasks/filtered", "/api/v1/tasks/export"));
+    }
+
+    /**
+     * Attaches the {@code fields=} filter to {@link TaskResponse} in the application's mappers only, through a mix-in,
+     * so mappers without a filter provider, like the reactive module's, still serialize it. Unless a response sets
+     * the filter, every property is written.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer taskFieldsFilterCustomizer() {
+        return builder -> builder
+                .mixIn(TaskResponse.class, TaskFieldsFilterMixIn.class)
+                .filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+
+    /**
+     * Binary representations for clients asking for {@code application/cbor} or {@code application/x-jackson-smile}.
+     * Both are built from the same Jackson settings as JSON, so only the encoding differs. Spring Boot puts them in
+     * place of the default converters of the same type, which come after JSON, so JSON stays the default.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false).factory(new SmileFactory()).build());
+    }
+
+    @JsonFilter(TaskField.FILTER_ID)
+    private interface TaskFieldsFilterMixIn {
+    }
+}
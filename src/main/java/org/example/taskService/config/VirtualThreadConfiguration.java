@@ -0,0 +1,51 @@
+package org.example.taskService.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs every request on its own virtual thread instead of the bounded Tomcat worker pool.
+ * The data source is wrapped in {@link ConcurrencyLimitingDataSource}, so the many virtual
+ * threads wait on a cheap semaphore rather than all polling the connection pool at once.
+ * Only the application's {@code dataSource} bean is wrapped; the pools behind a routing data source
+ * are injected by their own type and must stay unwrapped.
+ */
+@Configuration
+@ConditionalOnProperty(name = "task.execution.mode", havingValue = "virtual")
+public class VirtualThreadConfiguration {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean
+    public static BeanPostProcessor concurrencyLimitingDataSourcePostProcessor(ObjectProvider<TaskExecutionProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)
+                        || bean instanceof ConcurrencyLimitingDataSource) {
+                    return bean;
+                }
+                TaskExecutionProperties executionProperties = properties.getObject();
+                int permits = executionProperties.getMaxConcurrentConnections();
+                if (permits <= 0 && dataSource instanceof HikariDataSource hikariDataSource) {
+                    permits = hikariDataSource.getMaximumPoolSize();
+                }
+                if (permits <= 0) {
+                    return bean;
+                }
+                return new ConcurrencyLimitingDataSource(dataSource, permits, executionProperties.getConnectionAcquireTimeout());
+            }
+        };
+    }
+}
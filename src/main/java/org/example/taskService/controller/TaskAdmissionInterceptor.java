@@ -0,0 +1,136 @@
+package org.example.taskService.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.taskService.config.TaskAdmissionProperties;
+import org.example.taskService.exception.TaskOverloadedException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control for the reads that hold a connection for long: {@code /filtered} over a week or a month,
+ * and {@code /export}. Each route runs at most {@code max-concurrent} requests; up to {@code max-queued} more
+ * wait in arrival order for at most {@code queue-timeout}, and the rest are rejected at once with 503 and
+ * {@code Retry-After}. Everything else, writes included, is never queued here, so it always finds a free
+ * connection while the limited routes are saturated.
+ * <p>
+ * Registered after {@link TaskListEtagInterceptor}, so a 304 never takes a slot.
+ */
+@Component
+@ConditionalOnProperty(name = "task.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskAdmissionInterceptor implements HandlerInterceptor {
+    private static final String ADMITTED_ATTRIBUTE = TaskAdmissionInterceptor.class.getName() + ".admitted";
+
+    private final Duration retryAfter;
+    private final Map<String, Gate> gates = new HashMap<>();
+
+    public TaskAdmissionInterceptor(TaskAdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.retryAfter = properties.getRetryAfter();
+        properties.getLimits().forEach((route, limit) -> gates.put(route, new Gate(route, limit, meterRegistry)));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Gate gate = gates.get(route(request));
+        if (gate == null) {
+            return true;
+        }
+        if (!gate.enter()) {
+            throw new TaskOverloadedException(gate.route, retryAfter);
+        }
+        request.setAttribute(ADMITTED_ATTRIBUTE, gate);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(ADMITTED_ATTRIBUTE) instanceof Gate gate) {
+            request.removeAttribute(ADMITTED_ATTRIBUTE);
+            gate.leave();
+        }
+    }
+
+    private String route(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return null;
+        }
+        if (request.getRequestURI().endsWith("/export")) {
+            return "export";
+        }
+        if (request.getRequestURI().endsWith("/filtered")) {
+            return request.getParameter("interval");
+        }
+        return null;
+    }
+
+    private static final class Gate {
+        private final String route;
+        private final Semaphore slots;
+        private final int maxQueued;
+        private final Duration queueTimeout;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final Timer queueTime;
+        private final Counter rejectedQueueFull;
+        private final Counter rejectedTimeout;
+
+        Gate(String route, TaskAdmissionProperties.Limit limit, MeterRegistry meterRegistry) {
+            this.route = route;
+            this.slots = new Semaphore(limit.getMaxConcurrent(), true);
+            this.maxQueued = limit.getMaxQueued();
+            this.queueTimeout = limit.getQueueTimeout();
+            int maxConcurrent = limit.getMaxConcurrent();
+            Gauge.builder("task.admission.active", slots, s -> maxConcurrent - s.availablePermits())
+                    .tag("route", route).register(meterRegistry);
+            Gauge.builder("task.admission.queued", queued, AtomicInteger::get)
+                    .tag("route", route).register(meterRegistry);
+            this.queueTime = Timer.builder("task.admission.queue.time").tag("route", route).register(meterRegistry);
+            this.rejectedQueueFull = Counter.builder("task.admission.rejected")
+                    .tag("route", route).tag("reason", "queue_full").register(meterRegistry);
+            this.rejectedTimeout = Counter.builder("task.admission.rejected")
+                    .tag("route", route).tag("reason", "timeout").register(meterRegistry);
+        }
+
+        /**
+         * The timed {@code tryAcquire} honours the fairness of the semaphore, unlike the untimed one, so a new
+         * request never overtakes queued ones.
+         */
+        boolean enter() {
+            if (queued.incrementAndGet() > maxQueued && slots.availablePermits() == 0) {
+                queued.decrementAndGet();
+                rejectedQueueFull.increment();
+                return false;
+            }
+            long started = System.nanoTime();
+            try {
+                if (slots.tryAcquire(queueTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                    return true;
+                }
+                rejectedTimeout.increment();
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejectedTimeout.increment();
+                return false;
+            } finally {
+                queued.decrementAndGet();
+                queueTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        void leave() {
+            slots.release();
+        }
+    }
+}
@@ -1,13 +1,32 @@
 package org.example.taskService.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.example.taskService.dto.TaskBatchCreationRequest;
+import org.example.taskService.dto.TaskBatchIdsRequest;
+import org.example.taskService.dto.TaskBatchItemResult;
+import org.example.taskService.dto.TaskBucket;
 import org.example.taskService.dto.TaskCreationRequest;
+import org.example.taskService.dto.TaskField;
+import org.example.taskService.dto.TaskImportReport;
+import org.example.taskService.dto.TaskPage;
 import org.example.taskService.dto.TaskUpdateRequest;
 import org.example.taskService.dto.TaskResponse;
+import org.example.taskService.dto.TaskStatisticsResponse;
+import org.example.taskService.dto.TaskSummaryResponse;
 import org.example.taskService.exception.InvalidIntervalException;
+import org.example.taskService.exception.TaskVersionMismatchException;
+import org.example.taskService.service.TaskChangeFeed;
+import org.example.taskService.service.TaskDataFormat;
+import org.example.taskService.service.TaskExporter;
+import org.example.taskService.service.TaskImporter;
 import org.example.taskService.service.TaskService;
+import org.example.taskService.service.TaskToggleCoalescer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,75 +34,201 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/tasks")
 public class TaskController {
+    private static final String DEFAULT_LIMIT = "" + TaskService.DEFAULT_PAGE_SIZE;
+
     private final TaskService taskService;
+    private final TaskExporter taskExporter;
+    private final TaskImporter taskImporter;
+    private final TaskChangeFeed taskChangeFeed;
+    private final TaskToggleCoalescer taskToggleCoalescer;
 
     @Autowired
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskExporter taskExporter, TaskImporter taskImporter,
+                          TaskChangeFeed taskChangeFeed, TaskToggleCoalescer taskToggleCoalescer) {
         this.taskService = taskService;
+        this.taskExporter = taskExporter;
+        this.taskImporter = taskImporter;
+        this.taskChangeFeed = taskChangeFeed;
+        this.taskToggleCoalescer = taskToggleCoalescer;
     }
 
     @GetMapping
-    public ResponseEntity<List<TaskResponse>> getTasksByDateAndCompletionStatus(@RequestParam LocalDateTime date, @RequestParam boolean completed) {
-        return new ResponseEntity<>(taskService.getTasksByDateAndCompletionStatus(date, completed), HttpStatus.OK);
+    public ResponseEntity<TaskPage> getTasksByDateAndCompletionStatus(
+            @RequestParam LocalDateTime date,
+            @RequestParam boolean completed,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_LIMIT) int limit,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) String fields) {
+        Set<TaskField> taskFields = TaskField.parse(fields);
+        if (includeArchived) {
+            return new ResponseEntity<>(taskService.getTasksIncludingArchived(date, date, completed, cursor, limit, taskFields), HttpStatus.OK);
+        }
+        return new ResponseEntity<>(taskService.getTasksByDateAndCompletionStatus(date, completed, cursor, limit, taskFields), HttpStatus.OK);
     }
 
     @GetMapping("/filtered")
-    public ResponseEntity<List<TaskResponse>> getTasksByIntervalAndCompletionStatus(
+    public ResponseEntity<TaskPage> getTasksByIntervalAndCompletionStatus(
             @RequestParam(required = false) String interval,
             @RequestParam boolean completed,
-            @RequestParam(required = false) String direction) {
+            @RequestParam(required = false) String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_LIMIT) int limit,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) String fields) {
 
+        Set<TaskField> taskFields = TaskField.parse(fields);
         if ("today".equals(interval)) {
             LocalDate today = LocalDate.now();
             LocalDateTime startOfDay = today.atStartOfDay();
             LocalDateTime endOfDay = today.atTime(LocalTime.MAX);
+            if (includeArchived) {
+                return new ResponseEntity<>(
+                        taskService.getTasksIncludingArchived(startOfDay, endOfDay, completed, cursor, limit, taskFields),
+                        HttpStatus.OK);
+            }
             return new ResponseEntity<>(
-                    taskService.getTasksByDateRangeAndCompletionStatus(startOfDay, endOfDay, completed),
+                    taskService.getTasksByDateRangeAndCompletionStatus(startOfDay, endOfDay, completed, cursor, limit, taskFields),
                     HttpStatus.OK);
         } else if ("week".equals(interval)) {
             if ("future".equals(direction)) {
-                return new ResponseEntity<>(taskService.getUpcomingTasksByWeekAndCompletionStatus(completed), HttpStatus.OK);
+                return new ResponseEntity<>(taskService.getUpcomingTasksByWeekAndCompletionStatus(completed, includeArchived, cursor, limit, taskFields), HttpStatus.OK);
             } else {
-                return new ResponseEntity<>(taskService.getTasksByWeekAndCompletionStatus(completed), HttpStatus.OK);
+                return new ResponseEntity<>(taskService.getTasksByWeekAndCompletionStatus(completed, includeArchived, cursor, limit, taskFields), HttpStatus.OK);
             }
         } else if ("month".equals(interval)) {
             if ("future".equals(direction)) {
-                return new ResponseEntity<>(taskService.getUpcomingTasksByMonthAndCompletionStatus(completed), HttpStatus.OK);
+                return new ResponseEntity<>(taskService.getUpcomingTasksByMonthAndCompletionStatus(completed, includeArchived, cursor, limit, taskFields), HttpStatus.OK);
             } else {
-                return new ResponseEntity<>(taskService.getTasksByMonthAndCompletionStatus(completed), HttpStatus.OK);
+                return new ResponseEntity<>(taskService.getTasksByMonthAndCompletionStatus(completed, includeArchived, cursor, limit, taskFields), HttpStatus.OK);
             }
         } else {
             throw new InvalidIntervalException("Invalid interval value: " + interval);
         }
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<TaskPage> searchTasks(
+            @RequestParam String q,
+            @RequestParam(required = false) LocalDateTime start,
+            @RequestParam(required = false) LocalDateTime end,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(defaultValue = DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(taskService.searchTasks(q, start, end, completed, limit));
+    }
+
+    /**
+     * Server-Sent Events stream of task changes. {@code EventSource} resends the id of the last event it saw in
+     * {@code Last-Event-ID} when it reconnects, and the missed events are replayed.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTaskChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return taskChangeFeed.subscribe(lastEventId);
+    }
+
+    @GetMapping("/summary")
+    public ResponseEntity<TaskSummaryResponse> getTaskSummary() {
+        return ResponseEntity.ok(taskService.getTaskSummary());
+    }
+
+    /**
+     * Completed and open task counts per {@code bucket} (hour, day, week or month) for charts, counted in the
+     * database instead of by pulling the task lists.
+     */
+    @GetMapping("/statistics")
+    public ResponseEntity<TaskStatisticsResponse> getTaskStatistics(
+            @RequestParam LocalDateTime start,
+            @RequestParam LocalDateTime end,
+            @RequestParam(defaultValue = "day") String bucket,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return ResponseEntity.ok(taskService.getTaskStatistics(start, end, TaskBucket.parse(bucket), completed, includeArchived));
+    }
+
+    @GetMapping("/export")
+    public void exportTasks(
+            @RequestParam(required = false) LocalDateTime start,
+            @RequestParam(required = false) LocalDateTime end,
+            @RequestParam(required = false) Boolean completed,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) throws IOException {
+        TaskDataFormat exportFormat = TaskDataFormat.fromValue(format);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=tasks." + exportFormat.getValue());
+        taskExporter.export(start, end, completed, exportFormat, response.getOutputStream());
+    }
+
     @PostMapping
     public ResponseEntity<TaskResponse> createTask(@Valid @RequestBody TaskCreationRequest taskRequest) {
         TaskResponse taskResponse = taskService.createTask(taskRequest);
-        return ResponseEntity.status(HttpStatus.CREATED).body(taskResponse);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(taskEtag(taskResponse)).body(taskResponse);
+    }
+
+    @PostMapping("/import")
+    public ResponseEntity<TaskImportReport> importTasks(
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request) throws IOException {
+        TaskDataFormat importFormat = TaskDataFormat.fromValue(format);
+        return ResponseEntity.ok(taskImporter.importTasks(importFormat, request.getInputStream()));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<TaskBatchItemResult>> createTasks(@Valid @RequestBody TaskBatchCreationRequest batchRequest) {
+        return ResponseEntity.ok(taskService.createTasks(batchRequest.getTasks()));
+    }
+
+    @PostMapping("/batch/toggle-completion")
+    public ResponseEntity<List<TaskBatchItemResult>> toggleTasksCompletion(@Valid @RequestBody TaskBatchIdsRequest batchRequest) {
+        return ResponseEntity.ok(taskService.toggleTasksCompletion(batchRequest.getIds()));
+    }
+
+    @PostMapping("/batch/delete")
+    public ResponseEntity<List<TaskBatchItemResult>> deleteTasks(@Valid @RequestBody TaskBatchIdsRequest batchRequest) {
+        return ResponseEntity.ok(taskService.deleteTasks(batchRequest.getIds()));
+    }
+
+    /**
+     * One whole task, for clients that list with {@code fields=} and load the description on demand. Answers
+     * {@code If-None-Match} with the task ETag, the same one {@code PATCH} accepts in {@code If-Match}.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<TaskResponse> getTask(@PathVariable Long id) {
+        TaskResponse taskResponse = taskService.getTask(id);
+        return ResponseEntity.ok().eTag(taskEtag(taskResponse)).body(taskResponse);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<TaskResponse> updateTask(@PathVariable Long id, @Valid @RequestBody TaskUpdateRequest taskUpdate) {
-        TaskResponse taskResponse = taskService.updateTask(id, taskUpdate);
-        return ResponseEntity.ok(taskResponse);
+    public ResponseEntity<TaskResponse> updateTask(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody TaskUpdateRequest taskUpdate) {
+        TaskResponse taskResponse = ifMatch == null || "*".equals(ifMatch.trim())
+                ? taskService.updateTask(id, taskUpdate)
+                : taskService.updateTask(id, taskUpdate, parseTaskEtag(id, ifMatch));
+        return ResponseEntity.ok().eTag(taskEtag(taskResponse)).body(taskResponse);
     }
 
     @PostMapping("/{id}/toggle-completion")
     public ResponseEntity<Void> toggleTaskCompletion(@PathVariable Long id) {
-        taskService.toggleTaskCompletion(id);
+        taskToggleCoalescer.toggle(id);
         return ResponseEntity.noContent().build();
     }
 
@@ -92,4 +237,24 @@ public class TaskController {
         taskService.deleteTask(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static String taskEtag(TaskResponse task) {
+        return "\"" + task.getVersion() + "\"";
+    }
+
+    /**
+     * If-Match uses strong comparison, so only a single quoted version is accepted; weak or malformed
+     * tags can never match.
+     */
+    private static long parseTaskEtag(Long id, String etag) {
+        String value = etag.trim();
+        if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            try {
+                return Long.parseLong(value.substring(1, value.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // falls through to the mismatch below
+            }
+        }
+        throw new TaskVersionMismatchException(id);
+    }
 }
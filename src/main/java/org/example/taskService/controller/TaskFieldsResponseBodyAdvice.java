@@ -0,0 +1,51 @@
+package org.example.taskService.controller;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.example.taskService.dto.TaskField;
+import org.example.taskService.dto.TaskPage;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Leaves the properties that were not asked for with {@code fields=} out of a task page. The service has already
+ * left their columns out of the query; this keeps the defaults it put in their place off the wire. Other responses
+ * are written as they are.
+ */
+@ControllerAdvice(assignableTypes = TaskController.class)
+public class TaskFieldsResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType,
+                                  Class<? extends HttpMessageConverter<?>> converterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(body instanceof TaskPage) || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+        Set<TaskField> fields = TaskField.parse(servletRequest.getServletRequest().getParameter("fields"));
+        if (fields.containsAll(TaskField.ALL)) {
+            return body;
+        }
+        Set<String> names = fields.stream().map(TaskField::fieldName).collect(Collectors.toSet());
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider()
+                .addFilter(TaskField.FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(names)));
+        return value;
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.taskService.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.example.taskService.service.TaskChangeVersion;
+import org.example.taskService.service.TaskReplicaLag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Answers {@code If-None-Match} on the task list and statistics endpoints with 304 before the controller runs,
+ * so an unchanged list costs neither a query nor serialization. Requests it cannot tag, such as an unknown
+ * interval, pass through untouched. Lists are served as JSON, CBOR or Smile depending on {@code Accept},
+ * so responses carry {@code Vary: Accept} and caches keep one entry per representation. Reads that a lagging
+ * replica may serve are not tagged, see {@link TaskReplicaLag}.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskListEtagInterceptor implements HandlerInterceptor {
+    private final TaskChangeVersion taskChangeVersion;
+    private final TaskReplicaLag taskReplicaLag;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod())) {
+            return true;
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (taskReplicaLag.mayReadStale()) {
+            return true;
+        }
+        String etag = etag(request);
+        return etag == null || !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+
+    private String etag(HttpServletRequest request) {
+        if (!request.getRequestURI().endsWith("/filtered")) {
+            return taskChangeVersion.etag();
+        }
+        String interval = request.getParameter("interval");
+        if ("today".equals(interval)) {
+            return taskChangeVersion.dayEtag();
+        } else if ("week".equals(interval) || "month".equals(interval)) {
+            return taskChangeVersion.rollingWindowEtag();
+        }
+        return null;
+    }
+}
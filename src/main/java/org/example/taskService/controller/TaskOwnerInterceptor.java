@@ -0,0 +1,47 @@
+package org.example.taskService.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.taskService.exception.InvalidOwnerException;
+import org.example.taskService.service.TaskOwnerContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Takes the owner of a task request from {@code X-Task-Owner} and makes it the {@link TaskOwnerContext} of the
+ * request thread; without the header the request acts as {@link TaskOwnerContext#DEFAULT_OWNER}. The owner is
+ * expected to be set by an authenticating gateway in front of the service, not chosen by the end client.
+ * Responses differ per owner, so they carry {@code Vary: X-Task-Owner}.
+ */
+@Component
+public class TaskOwnerInterceptor implements AsyncHandlerInterceptor {
+    public static final String OWNER_HEADER = "X-Task-Owner";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        response.addHeader(HttpHeaders.VARY, OWNER_HEADER);
+        String owner = request.getHeader(OWNER_HEADER);
+        if (owner == null) {
+            return true;
+        }
+        if (!TaskOwnerContext.isValid(owner)) {
+            throw new InvalidOwnerException(owner);
+        }
+        TaskOwnerContext.set(owner);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        TaskOwnerContext.clear();
+    }
+
+    /**
+     * The change feed returns its thread before completing, and the owner must not stay on that thread.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        TaskOwnerContext.clear();
+    }
+}
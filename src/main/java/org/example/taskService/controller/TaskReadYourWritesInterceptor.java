@@ -0,0 +1,76 @@
+package org.example.taskService.controller;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.taskService.config.TaskReplicaProperties;
+import org.example.taskService.service.TaskReadContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Keeps a client's reads on the primary for {@code task.replica.read-your-writes-window} after its last write.
+ * Every write response sets a cookie holding the end of that window, so the client carries its own state and
+ * any instance can honour it; reads presenting an unexpired cookie are pinned to the primary.
+ */
+@Component
+@ConditionalOnProperty(name = "task.replica.enabled", havingValue = "true")
+public class TaskReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+    static final String COOKIE_NAME = "task-primary-until";
+
+    private final Duration window;
+
+    public TaskReadYourWritesInterceptor(TaskReplicaProperties properties) {
+        this.window = properties.getReadYourWritesWindow();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long now = System.currentTimeMillis();
+        if (!"GET".equals(request.getMethod())) {
+            response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE_NAME, Long.toString(now + window.toMillis()))
+                    .path("/api/v1/tasks")
+                    .maxAge(window.plusSeconds(1).toSeconds())
+                    .httpOnly(true)
+                    .build()
+                    .toString());
+        } else if (primaryUntil(request) > now) {
+            TaskReadContext.pinToPrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        TaskReadContext.unpin();
+    }
+
+    /**
+     * The change feed returns its thread before completing, and the pin must not stay on that thread.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        TaskReadContext.unpin();
+    }
+
+    private long primaryUntil(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return 0;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
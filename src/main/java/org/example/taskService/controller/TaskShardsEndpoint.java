@@ -0,0 +1,34 @@
+package org.example.taskService.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.taskService.service.TaskShardRebalancer;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code GET /actuator/taskshards} lists the owners stored on the wrong shard, and {@code POST} moves them.
+ * The endpoint is unauthenticated and not exposed over HTTP by default; expose it only on a separate
+ * {@code management.server.port} that clients cannot reach.
+ */
+@Component
+@Endpoint(id = "taskshards")
+@ConditionalOnProperty(name = "task.sharding.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class TaskShardsEndpoint {
+    private final TaskShardRebalancer taskShardRebalancer;
+
+    @ReadOperation
+    public List<TaskShardRebalancer.Move> plan() {
+        return taskShardRebalancer.plan();
+    }
+
+    @WriteOperation
+    public List<TaskShardRebalancer.Move> rebalance() {
+        return taskShardRebalancer.rebalance();
+    }
+}
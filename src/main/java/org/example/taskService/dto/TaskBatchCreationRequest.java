@@ -0,0 +1,21 @@
+package org.example.taskService.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBatchCreationRequest {
+
+    @NotEmpty(message = "Tasks are mandatory")
+    @Size(max = 1000, message = "At most 1000 tasks per batch")
+    private List<@Valid TaskCreationRequest> tasks;
+
+}
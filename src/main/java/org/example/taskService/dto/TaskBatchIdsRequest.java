@@ -0,0 +1,21 @@
+package org.example.taskService.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBatchIdsRequest {
+
+    @NotEmpty(message = "Ids are mandatory")
+    @Size(max = 1000, message = "At most 1000 ids per batch")
+    private List<@NotNull(message = "Id is mandatory") Long> ids;
+
+}
@@ -0,0 +1,18 @@
+package org.example.taskService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBatchItemResult {
+
+    private Long id;
+
+    private TaskBatchItemStatus status;
+
+    private TaskResponse task;
+
+}
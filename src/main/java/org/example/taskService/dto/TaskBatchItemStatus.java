@@ -0,0 +1,8 @@
+package org.example.taskService.dto;
+
+public enum TaskBatchItemStatus {
+    CREATED,
+    TOGGLED,
+    DELETED,
+    NOT_FOUND
+}
@@ -0,0 +1,45 @@
+package org.example.taskService.dto;
+
+import org.example.taskService.exception.InvalidIntervalException;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+/**
+ * Width of the time buckets that task statistics are counted in. Weeks start on Monday.
+ */
+public enum TaskBucket {
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS),
+    WEEK(ChronoUnit.WEEKS),
+    MONTH(ChronoUnit.MONTHS);
+
+    private final ChronoUnit unit;
+
+    TaskBucket(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * The field name {@code date_trunc} takes for this bucket.
+     */
+    public String fieldName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return how many buckets the range from {@code start} to {@code end} touches, counting partial ones
+     */
+    public long bucketsBetween(LocalDateTime start, LocalDateTime end) {
+        return unit.between(start, end) + 1;
+    }
+
+    public static TaskBucket parse(String bucket) {
+        try {
+            return valueOf(bucket.strip().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidIntervalException("Invalid bucket value: " + bucket);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.taskService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBucketCounts {
+
+    private LocalDateTime start;
+
+    private long completed;
+
+    private long open;
+
+}
@@ -0,0 +1,23 @@
+package org.example.taskService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskChangeEvent {
+
+    private String id;
+
+    private TaskChangeType type;
+
+    private Long taskId;
+
+    /**
+     * The task after the change for {@code CREATED} and {@code UPDATED}; {@code null} otherwise.
+     */
+    private TaskResponse task;
+
+}
@@ -0,0 +1,12 @@
+package org.example.taskService.dto;
+
+public enum TaskChangeType {
+    CREATED,
+    UPDATED,
+    TOGGLED,
+    DELETED,
+    /**
+     * Events were dropped or cannot be replayed; the client must reload the lists it shows.
+     */
+    RESYNC
+}
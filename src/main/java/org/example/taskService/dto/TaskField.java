@@ -0,0 +1,50 @@
+package org.example.taskService.dto;
+
+import org.example.taskService.exception.InvalidFieldsException;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A {@link TaskResponse} property that list endpoints can be asked for with {@code fields=}. The name is both
+ * the JSON property and the column of {@code tasks} and {@code tasks_archive}.
+ */
+public enum TaskField {
+    ID,
+    TITLE,
+    DESCRIPTION,
+    DATE,
+    COMPLETED,
+    VERSION;
+
+    public static final Set<TaskField> ALL = Collections.unmodifiableSet(EnumSet.allOf(TaskField.class));
+
+    /**
+     * Id of the Jackson filter that drops the properties of {@link TaskResponse} that were not asked for.
+     */
+    public static final String FILTER_ID = "taskFields";
+
+    public String fieldName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Parses a comma-separated list such as {@code id,title,date}. A missing or blank list means all fields.
+     */
+    public static Set<TaskField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<TaskField> parsed = EnumSet.noneOf(TaskField.class);
+        for (String name : fields.split(",")) {
+            try {
+                parsed.add(valueOf(name.strip().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidFieldsException(fields);
+            }
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.taskService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskImportRejection {
+
+    private long row;
+
+    private String message;
+
+}
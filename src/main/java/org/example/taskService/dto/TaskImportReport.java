@@ -0,0 +1,20 @@
+package org.example.taskService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskImportReport {
+
+    private long imported;
+
+    private long rejected;
+
+    private List<TaskImportRejection> rejections;
+
+}
@@ -0,0 +1,22 @@
+package org.example.taskService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskImportRow {
+
+    private String title;
+
+    private String description;
+
+    private LocalDateTime date;
+
+    private boolean completed;
+
+}
@@ -0,0 +1,21 @@
+package org.example.taskService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStatisticsResponse {
+
+    private TaskBucket bucket;
+
+    /**
+     * Ordered by start; buckets without tasks are left out.
+     */
+    private List<TaskBucketCounts> buckets;
+
+}
@@ -0,0 +1,22 @@
+package org.example.taskService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSummaryResponse {
+
+    private TaskCounts today;
+
+    private TaskCounts week;
+
+    private TaskCounts month;
+
+    private TaskCounts upcomingWeek;
+
+    private TaskCounts upcomingMonth;
+
+}
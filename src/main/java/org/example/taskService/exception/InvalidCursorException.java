@@ -0,0 +1,7 @@
+package org.example.taskService.exception;
+
+public class InvalidCursorException extends IllegalArgumentException {
+    public InvalidCursorException(String cursor) {
+        super("Invalid cursor value: " + cursor);
+    }
+}
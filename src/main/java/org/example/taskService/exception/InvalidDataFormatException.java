@@ -0,0 +1,7 @@
+package org.example.taskService.exception;
+
+public class InvalidDataFormatException extends IllegalArgumentException {
+    public InvalidDataFormatException(String format) {
+        super("Invalid format value: " + format);
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.taskService.exception;
+
+public class InvalidFieldsException extends IllegalArgumentException {
+    public InvalidFieldsException(String fields) {
+        super("Invalid fields value: " + fields);
+    }
+}
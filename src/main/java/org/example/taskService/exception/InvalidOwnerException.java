@@ -0,0 +1,7 @@
+package org.example.taskService.exception;
+
+public class InvalidOwnerException extends IllegalArgumentException {
+    public InvalidOwnerException(String owner) {
+        super("Invalid task owner: " + owner);
+    }
+}
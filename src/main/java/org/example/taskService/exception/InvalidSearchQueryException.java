@@ -0,0 +1,7 @@
+package org.example.taskService.exception;
+
+public class InvalidSearchQueryException extends IllegalArgumentException {
+    public InvalidSearchQueryException(String query) {
+        super("Invalid search query: " + query);
+    }
+}
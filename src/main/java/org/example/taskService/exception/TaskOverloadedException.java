@@ -0,0 +1,15 @@
+package org.example.taskService.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class TaskOverloadedException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public TaskOverloadedException(String route, Duration retryAfter) {
+        super("Too many concurrent " + route + " requests, retry later");
+        this.retryAfter = retryAfter;
+    }
+}
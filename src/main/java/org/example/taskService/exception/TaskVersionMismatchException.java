@@ -0,0 +1,7 @@
+package org.example.taskService.exception;
+
+public class TaskVersionMismatchException extends RuntimeException {
+    public TaskVersionMismatchException(Long taskId) {
+        super("Task with ID " + taskId + " was modified by another request.");
+    }
+}
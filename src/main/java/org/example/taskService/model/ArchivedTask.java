@@ -0,0 +1,41 @@
+package org.example.taskService.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * Completed task moved out of {@code tasks} by {@code TaskArchiver}. Keeps the original id, so pages that
+ * mix live and archived tasks stay ordered by {@code (date, id)}. Archived tasks are read-only.
+ */
+@Entity
+@Table(name = "tasks_archive", indexes = @Index(name = "tasks_archive_owner_date_id_idx", columnList = "owner, date, id"))
+@Data
+@NoArgsConstructor
+public class ArchivedTask {
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    @ColumnDefault("'default'")
+    private String owner;
+
+    private String title;
+
+    private String description;
+
+    private LocalDateTime date;
+
+    private boolean completed;
+
+    private long version;
+
+    private LocalDateTime archivedAt;
+}
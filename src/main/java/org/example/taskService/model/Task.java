@@ -1,23 +1,46 @@
 package org.example.taskService.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Entity
+@Table(name = "tasks", indexes = @Index(name = "tasks_owner_completed_date_idx", columnList = "owner, completed, date"))
 @Data
 @NoArgsConstructor
 public class Task {
+    /**
+     * Ids handed out per sequence call; the pooled optimizer uses {@code (value - ID_ALLOCATION_SIZE, value]}.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+    public static final String DEFAULT_OWNER = "default";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_id_seq")
+    @SequenceGenerator(name = "tasks_id_seq", sequenceName = "tasks_id_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
+    /**
+     * Every query is restricted to one owner, and all of an owner's tasks live on the same shard.
+     * Like the column default, which keeps rows inserted before owners existed readable, a task created
+     * without an owner belongs to {@link #DEFAULT_OWNER}.
+     */
+    @Column(nullable = false, length = 64)
+    @ColumnDefault("'" + DEFAULT_OWNER + "'")
+    private String owner = DEFAULT_OWNER;
+
     @NotBlank(message = "Title is mandatory")
     private String title;
 
@@ -27,4 +50,11 @@ public class Task {
     private LocalDateTime date;
 
     private boolean completed;
+
+    /**
+     * Bumped by every update, including the bulk JPQL and JDBC statements, which do it explicitly.
+     * Exposed as the task's ETag so that PATCH can detect lost updates.
+     */
+    @Version
+    private long version;
 }
@@ -0,0 +1,45 @@
+package org.example.taskService.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Number of completed and open tasks of one owner whose date falls on one day. Rows are kept up to date by
+ * the task write path and corrected by {@code TaskCounterReconciler}.
+ */
+@Entity
+@Table(name = "task_daily_counts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(TaskDailyCount.Key.class)
+public class TaskDailyCount {
+    @Id
+    @Column(length = 64)
+    private String owner;
+
+    @Id
+    private LocalDate date;
+
+    private long completedCount;
+
+    private long openCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String owner;
+
+        private LocalDate date;
+    }
+}
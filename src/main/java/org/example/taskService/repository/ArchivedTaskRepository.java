@@ -0,0 +1,35 @@
+package org.example.taskService.repository;
+
+import org.example.taskService.dto.TaskResponse;
+import org.example.taskService.model.ArchivedTask;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long>, TaskArchivalRepository {
+
+    @Query("SELECT new org.example.taskService.dto.TaskResponse(t.id, t.title, t.description, t.date, t.completed, t.version) " +
+            "FROM ArchivedTask t WHERE t.owner = :owner AND t.date BETWEEN :startDate AND :endDate " +
+            "ORDER BY t.date, t.id")
+    List<TaskResponse> findPage(@Param("owner") String owner,
+                                @Param("startDate") LocalDateTime startDate,
+                                @Param("endDate") LocalDateTime endDate,
+                                Pageable pageable);
+
+    @Query("SELECT new org.example.taskService.dto.TaskResponse(t.id, t.title, t.description, t.date, t.completed, t.version) " +
+            "FROM ArchivedTask t WHERE t.owner = :owner AND t.date BETWEEN :startDate AND :endDate " +
+            "AND (t.date > :afterDate OR (t.date = :afterDate AND t.id > :afterId)) " +
+            "ORDER BY t.date, t.id")
+    List<TaskResponse> findPageAfter(@Param("owner") String owner,
+                                     @Param("startDate") LocalDateTime startDate,
+                                     @Param("endDate") LocalDateTime endDate,
+                                     @Param("afterDate") LocalDateTime afterDate,
+                                     @Param("afterId") Long afterId,
+                                     Pageable pageable);
+}
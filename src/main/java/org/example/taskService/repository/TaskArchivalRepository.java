@@ -0,0 +1,10 @@
+package org.example.taskService.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TaskArchivalRepository {
+    List<Long> lockArchivableIds(LocalDateTime completedBefore, int limit);
+
+    int moveToArchive(List<Long> ids, LocalDateTime archivedAt);
+}
@@ -0,0 +1,46 @@
+package org.example.taskService.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves tasks between {@code tasks} and {@code tasks_archive} with plain SQL, so no entities are loaded.
+ * Both methods must run in the same transaction: the ids are locked by the select, so a task cannot be
+ * toggled back to open between being copied and being deleted.
+ */
+@RequiredArgsConstructor
+public class TaskArchivalRepositoryImpl implements TaskArchivalRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Oldest first, skipping rows locked by concurrent writers; they are picked up by a later run.
+     */
+    @Override
+    public List<Long> lockArchivableIds(LocalDateTime completedBefore, int limit) {
+        return jdbcTemplate.queryForList(
+                "SELECT id FROM tasks WHERE completed = true AND date < ? ORDER BY date, id LIMIT ? FOR UPDATE SKIP LOCKED",
+                Long.class, Timestamp.valueOf(completedBefore), limit);
+    }
+
+    @Override
+    public int moveToArchive(List<Long> ids, LocalDateTime archivedAt) {
+        Timestamp archivedAtTimestamp = Timestamp.valueOf(archivedAt);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO tasks_archive (id, owner, title, description, date, completed, version, archived_at) " +
+                        "SELECT id, owner, title, description, date, completed, version, ? FROM tasks WHERE id = ?",
+                ids, ids.size(), (statement, id) -> {
+                    statement.setTimestamp(1, archivedAtTimestamp);
+                    statement.setLong(2, id);
+                });
+        int moved = 0;
+        for (int count : jdbcTemplate.batchUpdate("DELETE FROM tasks WHERE id = ?", ids, ids.size(),
+                (statement, id) -> statement.setLong(1, id))[0]) {
+            moved += count;
+        }
+        return moved;
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.taskService.repository;
+
+import org.example.taskService.model.Task;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface TaskBatchRepository {
+    int[] batchToggleCompletion(String owner, List<Long> ids);
+
+    int[] batchDelete(String owner, List<Long> ids);
+
+    /**
+     * Locks the tasks of {@code owner} among {@code ids} and counts them per day as {@code {completed, open}}.
+     * Tasks without a date are locked but not counted. Must run inside a transaction.
+     */
+    Map<LocalDate, long[]> lockDailyCounts(String owner, Collection<Long> ids);
+
+    void bulkInsert(List<Task> tasks);
+}
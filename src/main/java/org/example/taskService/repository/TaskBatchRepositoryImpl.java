@@ -0,0 +1,138 @@
+package org.example.taskService.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.example.taskService.model.Task;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sends one JDBC batch per call instead of one statement per id. The per-statement update
+ * counts are returned in input order so callers can report which ids did not exist.
+ */
+@RequiredArgsConstructor
+public class TaskBatchRepositoryImpl implements TaskBatchRepository {
+    private static final String COPY_TASKS = "COPY tasks (id, owner, title, description, date, completed, version) FROM STDIN WITH (FORMAT csv)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int[] batchToggleCompletion(String owner, List<Long> ids) {
+        return executeBatch("UPDATE tasks SET completed = NOT completed, version = version + 1 WHERE id = ? AND owner = ?", owner, ids);
+    }
+
+    @Override
+    public int[] batchDelete(String owner, List<Long> ids) {
+        return executeBatch("DELETE FROM tasks WHERE id = ? AND owner = ?", owner, ids);
+    }
+
+    @Override
+    public Map<LocalDate, long[]> lockDailyCounts(String owner, Collection<Long> ids) {
+        Map<LocalDate, long[]> counts = new TreeMap<>();
+        if (ids.isEmpty()) {
+            return counts;
+        }
+        List<Object> args = new ArrayList<>(ids.size() + 1);
+        args.add(owner);
+        args.addAll(ids);
+        jdbcTemplate.query("SELECT date, completed FROM tasks WHERE owner = ? AND id IN ("
+                        + String.join(", ", Collections.nCopies(ids.size(), "?")) + ") ORDER BY id FOR UPDATE",
+                (RowCallbackHandler) resultSet -> {
+                    Timestamp date = resultSet.getTimestamp("date");
+                    if (date != null) {
+                        long[] dayCounts = counts.computeIfAbsent(date.toLocalDateTime().toLocalDate(), day -> new long[2]);
+                        dayCounts[resultSet.getBoolean("completed") ? 0 : 1]++;
+                    }
+                }, args.toArray());
+        return counts;
+    }
+
+    /**
+     * Loads the tasks with {@code COPY} on PostgreSQL and assigns their ids. Other databases get
+     * Hibernate batched inserts, after which the persistence context is cleared so a long import
+     * does not accumulate managed entities. Must run inside a transaction.
+     */
+    @Override
+    public void bulkInsert(List<Task> tasks) {
+        boolean copied = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                return false;
+            }
+            assignIds(tasks);
+            try {
+                connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_TASKS, new StringReader(toCsv(tasks)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return true;
+        }));
+        if (!copied) {
+            tasks.forEach(entityManager::persist);
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Takes whole blocks from the pooled sequence, the same way Hibernate does, so imported ids
+     * never collide with ids handed out by the application.
+     */
+    private void assignIds(List<Task> tasks) {
+        int blocks = tasks.size() / Task.ID_ALLOCATION_SIZE + 2;
+        List<Long> ids = new ArrayList<>(tasks.size());
+        for (Long blockEnd : jdbcTemplate.queryForList("SELECT nextval('tasks_id_seq') FROM generate_series(1, ?)", Long.class, blocks)) {
+            if (blockEnd < Task.ID_ALLOCATION_SIZE) {
+                continue;
+            }
+            for (long id = blockEnd - Task.ID_ALLOCATION_SIZE + 1; id <= blockEnd && ids.size() < tasks.size(); id++) {
+                ids.add(id);
+            }
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).setId(ids.get(i));
+        }
+    }
+
+    private String toCsv(List<Task> tasks) {
+        StringBuilder csv = new StringBuilder();
+        for (Task task : tasks) {
+            csv.append(task.getId()).append(',')
+                    .append(csvField(task.getOwner())).append(',')
+                    .append(csvField(task.getTitle())).append(',')
+                    .append(csvField(task.getDescription())).append(',')
+                    .append(task.getDate()).append(',')
+                    .append(task.isCompleted()).append(',')
+                    .append(task.getVersion()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    private String csvField(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private int[] executeBatch(String sql, String owner, List<Long> ids) {
+        return jdbcTemplate.batchUpdate(sql, ids, ids.size(), (statement, id) -> {
+            statement.setLong(1, id);
+            statement.setString(2, owner);
+        })[0];
+    }
+}
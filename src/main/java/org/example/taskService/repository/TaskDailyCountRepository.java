@@ -0,0 +1,13 @@
+package org.example.taskService.repository;
+
+import org.example.taskService.model.TaskDailyCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface TaskDailyCountRepository extends JpaRepository<TaskDailyCount, TaskDailyCount.Key>, TaskDailyCountUpdateRepository {
+    List<TaskDailyCount> findByOwnerAndDateBetween(String owner, LocalDate startDate, LocalDate endDate);
+}
@@ -0,0 +1,45 @@
+package org.example.taskService.repository;
+
+import org.example.taskService.model.TaskDailyCount;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public interface TaskDailyCountUpdateRepository {
+    void addToDate(String owner, LocalDate date, long completedDelta, long openDelta);
+
+    /**
+     * Ids of other owners are skipped, so callers may pass ids they have not checked.
+     */
+    void applyToggles(String owner, List<Long> taskIds);
+
+    /**
+     * Subtracts {@code deletedCounts}, {@code {completed, open}} per day as returned by
+     * {@link TaskBatchRepository#lockDailyCounts} for the deleted tasks. Days without a counter row are skipped.
+     */
+    void applyDeletes(String owner, Map<LocalDate, long[]> deletedCounts);
+
+    /**
+     * Subtracts tasks of any owner, each from the counters of its own owner, before they are moved to the archive.
+     */
+    void applyArchival(List<Long> taskIds);
+
+    /**
+     * Replaces the counters of {@code owner} with a recount of its tasks.
+     */
+    void recount(String owner);
+
+    /**
+     * Locks the counter row of {@code owner} and {@code date}, creating it if missing, and overwrites it with a
+     * recount of that day's tasks. Must run in a read committed transaction of its own.
+     *
+     * @return whether the stored counts were wrong
+     */
+    boolean reconcileDate(String owner, LocalDate date);
+
+    /**
+     * Unlocked snapshot of the counts, only good for finding the days that may have drifted.
+     */
+    List<TaskDailyCount> countTasksByDate();
+}
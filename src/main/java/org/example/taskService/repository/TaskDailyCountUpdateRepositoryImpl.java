@@ -0,0 +1,174 @@
+package org.example.taskService.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.taskService.model.TaskDailyCount;
+import org.springframework.dao.DuplicateKeyException;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counter updates derive the day and the completion status from the task row itself, so the
+ * write path does not have to read the task first. Every writer changes the task row before
+ * its counter row: toggles run after the task row was updated, and deletes subtract what was
+ * read from the task rows they locked before removing them.
+ */
+@RequiredArgsConstructor
+public class TaskDailyCountUpdateRepositoryImpl implements TaskDailyCountUpdateRepository {
+    private static final String ADD_TO_DATE =
+            "UPDATE task_daily_counts SET completed_count = completed_count + ?, open_count = open_count + ? " +
+                    "WHERE owner = ? AND date = ?";
+
+    private static final String INSERT_DATE_IF_MISSING =
+            "INSERT INTO task_daily_counts (owner, date, completed_count, open_count) VALUES (?, ?, 0, 0) " +
+                    "ON CONFLICT (owner, date) DO NOTHING";
+
+    private static final String MERGE_DATE_IF_MISSING =
+            "MERGE INTO task_daily_counts c USING (SELECT CAST(? AS VARCHAR(64)) AS task_owner, CAST(? AS DATE) AS task_date) d " +
+                    "ON c.owner = d.task_owner AND c.date = d.task_date " +
+                    "WHEN NOT MATCHED THEN INSERT (owner, date, completed_count, open_count) VALUES (d.task_owner, d.task_date, 0, 0)";
+
+    private static final String APPLY_TOGGLE =
+            "UPDATE task_daily_counts SET " +
+                    "completed_count = completed_count + CASE WHEN (SELECT completed FROM tasks WHERE id = ?) THEN 1 ELSE -1 END, " +
+                    "open_count = open_count + CASE WHEN (SELECT completed FROM tasks WHERE id = ?) THEN -1 ELSE 1 END " +
+                    "WHERE owner = ? AND date = (SELECT CAST(date AS DATE) FROM tasks WHERE id = ? AND owner = ?)";
+
+    private static final String APPLY_ARCHIVAL =
+            "UPDATE task_daily_counts SET " +
+                    "completed_count = completed_count - CASE WHEN (SELECT completed FROM tasks WHERE id = ?) THEN 1 ELSE 0 END, " +
+                    "open_count = open_count - CASE WHEN (SELECT completed FROM tasks WHERE id = ?) THEN 0 ELSE 1 END " +
+                    "WHERE owner = (SELECT owner FROM tasks WHERE id = ?) " +
+                    "AND date = (SELECT CAST(date AS DATE) FROM tasks WHERE id = ?)";
+
+    private static final String DELETE_OWNER_COUNTS = "DELETE FROM task_daily_counts WHERE owner = ?";
+
+    private static final String INSERT_OWNER_COUNTS =
+            "INSERT INTO task_daily_counts (owner, date, completed_count, open_count) " +
+                    "SELECT owner, CAST(date AS DATE), " +
+                    "SUM(CASE WHEN completed THEN 1 ELSE 0 END), SUM(CASE WHEN completed THEN 0 ELSE 1 END) " +
+                    "FROM tasks WHERE owner = ? AND date IS NOT NULL GROUP BY owner, CAST(date AS DATE)";
+
+    private static final String LOCK_DATE =
+            "SELECT completed_count, open_count FROM task_daily_counts WHERE owner = ? AND date = ? FOR UPDATE";
+
+    private static final String COUNT_DATE =
+            "SELECT COALESCE(SUM(CASE WHEN completed THEN 1 ELSE 0 END), 0) AS completed_count, " +
+                    "COALESCE(SUM(CASE WHEN completed THEN 0 ELSE 1 END), 0) AS open_count " +
+                    "FROM tasks WHERE owner = ? AND date >= ? AND date < ?";
+
+    private static final String SET_DATE =
+            "UPDATE task_daily_counts SET completed_count = ?, open_count = ? WHERE owner = ? AND date = ?";
+
+    private static final String COUNT_TASKS_BY_DATE =
+            "SELECT owner, CAST(date AS DATE) AS task_date, " +
+                    "SUM(CASE WHEN completed THEN 1 ELSE 0 END) AS completed_count, " +
+                    "SUM(CASE WHEN completed THEN 0 ELSE 1 END) AS open_count " +
+                    "FROM tasks WHERE date IS NOT NULL GROUP BY owner, CAST(date AS DATE)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The first write of a day creates the zero row in the caller's transaction with an insert that
+     * skips an existing row, so two writers racing on a new day do not fail on the primary key and
+     * no second connection is needed.
+     */
+    @Override
+    public void addToDate(String owner, LocalDate date, long completedDelta, long openDelta) {
+        Date sqlDate = Date.valueOf(date);
+        if (jdbcTemplate.update(ADD_TO_DATE, completedDelta, openDelta, owner, sqlDate) > 0) {
+            return;
+        }
+        insertDateIfMissing(owner, sqlDate);
+        jdbcTemplate.update(ADD_TO_DATE, completedDelta, openDelta, owner, sqlDate);
+    }
+
+    /**
+     * Writers update the task row before its counter row, so once the counter row is locked every writer of that
+     * day has either committed, and is seen by the recount that follows under read committed, or has yet to
+     * apply its delta, which then lands on top of the recount.
+     */
+    @Override
+    public boolean reconcileDate(String owner, LocalDate date) {
+        Date sqlDate = Date.valueOf(date);
+        insertDateIfMissing(owner, sqlDate);
+        long[] stored = jdbcTemplate.queryForObject(LOCK_DATE, (resultSet, rowNum) -> new long[]{
+                resultSet.getLong("completed_count"), resultSet.getLong("open_count")}, owner, sqlDate);
+        long[] actual = jdbcTemplate.queryForObject(COUNT_DATE, (resultSet, rowNum) -> new long[]{
+                        resultSet.getLong("completed_count"), resultSet.getLong("open_count")},
+                owner, Timestamp.valueOf(date.atStartOfDay()), Timestamp.valueOf(date.plusDays(1).atStartOfDay()));
+        if (stored[0] == actual[0] && stored[1] == actual[1]) {
+            return false;
+        }
+        jdbcTemplate.update(SET_DATE, actual[0], actual[1], owner, sqlDate);
+        return true;
+    }
+
+    @Override
+    public void applyToggles(String owner, List<Long> taskIds) {
+        executeBatch(APPLY_TOGGLE, owner, taskIds);
+    }
+
+    @Override
+    public void applyDeletes(String owner, Map<LocalDate, long[]> deletedCounts) {
+        List<Object[]> args = new ArrayList<>(deletedCounts.size());
+        deletedCounts.forEach((date, dayCounts) -> args.add(new Object[]{-dayCounts[0], -dayCounts[1], owner, Date.valueOf(date)}));
+        jdbcTemplate.batchUpdate(ADD_TO_DATE, args);
+    }
+
+    @Override
+    public void applyArchival(List<Long> taskIds) {
+        jdbcTemplate.batchUpdate(APPLY_ARCHIVAL, taskIds, taskIds.size(), (statement, taskId) -> {
+            for (int i = 1; i <= 4; i++) {
+                statement.setLong(i, taskId);
+            }
+        });
+    }
+
+    @Override
+    public void recount(String owner) {
+        jdbcTemplate.update(DELETE_OWNER_COUNTS, owner);
+        jdbcTemplate.update(INSERT_OWNER_COUNTS, owner);
+    }
+
+    @Override
+    public List<TaskDailyCount> countTasksByDate() {
+        return jdbcTemplate.query(COUNT_TASKS_BY_DATE, (resultSet, rowNum) -> new TaskDailyCount(
+                resultSet.getString("owner"),
+                resultSet.getDate("task_date").toLocalDate(),
+                resultSet.getLong("completed_count"),
+                resultSet.getLong("open_count")));
+    }
+
+    /**
+     * {@code ON CONFLICT} waits for a concurrent insert of the same day and then skips it. Other databases
+     * use {@code MERGE}, where a racing writer can still hit the primary key; those databases do not roll
+     * back the transaction for it.
+     */
+    private void insertDateIfMissing(String owner, Date sqlDate) {
+        boolean postgres = Boolean.TRUE.equals(jdbcTemplate.execute(
+                (ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class)));
+        try {
+            jdbcTemplate.update(postgres ? INSERT_DATE_IF_MISSING : MERGE_DATE_IF_MISSING, owner, sqlDate);
+        } catch (DuplicateKeyException e) {
+            // Another writer created the row first.
+        }
+    }
+
+    private void executeBatch(String sql, String owner, List<Long> taskIds) {
+        jdbcTemplate.batchUpdate(sql, taskIds, taskIds.size(), (statement, taskId) -> {
+            statement.setLong(1, taskId);
+            statement.setLong(2, taskId);
+            statement.setString(3, owner);
+            statement.setLong(4, taskId);
+            statement.setString(5, owner);
+        });
+    }
+}
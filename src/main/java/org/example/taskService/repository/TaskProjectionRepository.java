@@ -0,0 +1,24 @@
+package org.example.taskService.repository;
+
+import org.example.taskService.dto.TaskField;
+import org.example.taskService.dto.TaskResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+public interface TaskProjectionRepository {
+    /**
+     * Keyset page ordered by {@code (date, id)} that reads only the columns of {@code fields}, plus {@code id}
+     * and {@code date}, which the order and the cursor need. Properties not read are left at their defaults.
+     * The page starts after {@code (afterDate, afterId)} when they are given.
+     */
+    List<TaskResponse> findProjectedPage(String owner, Set<TaskField> fields, LocalDateTime start, LocalDateTime end, boolean completed,
+                                         LocalDateTime afterDate, Long afterId, int limit);
+
+    /**
+     * The same page read from {@code tasks_archive}, which holds only completed tasks.
+     */
+    List<TaskResponse> findProjectedArchivedPage(String owner, Set<TaskField> fields, LocalDateTime start, LocalDateTime end,
+                                                 LocalDateTime afterDate, Long afterId, int limit);
+}
@@ -0,0 +1,85 @@
+package org.example.taskService.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.taskService.dto.TaskField;
+import org.example.taskService.dto.TaskResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the select list from the requested fields, so a page without {@code description} never reads the
+ * column. Only enum constants end up in the SQL text; every value is a bind parameter.
+ */
+@RequiredArgsConstructor
+public class TaskProjectionRepositoryImpl implements TaskProjectionRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<TaskResponse> findProjectedPage(String owner, Set<TaskField> fields, LocalDateTime start, LocalDateTime end,
+                                                boolean completed, LocalDateTime afterDate, Long afterId, int limit) {
+        return findProjectedPage("tasks", owner, fields, start, end, completed, afterDate, afterId, limit);
+    }
+
+    @Override
+    public List<TaskResponse> findProjectedArchivedPage(String owner, Set<TaskField> fields, LocalDateTime start,
+                                                        LocalDateTime end, LocalDateTime afterDate, Long afterId, int limit) {
+        return findProjectedPage("tasks_archive", owner, fields, start, end, null, afterDate, afterId, limit);
+    }
+
+    private List<TaskResponse> findProjectedPage(String table, String owner, Set<TaskField> fields, LocalDateTime start,
+                                                 LocalDateTime end, Boolean completed, LocalDateTime afterDate, Long afterId,
+                                                 int limit) {
+        Set<TaskField> columns = EnumSet.of(TaskField.ID, TaskField.DATE);
+        columns.addAll(fields);
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(columns.stream().map(TaskField::fieldName).collect(Collectors.joining(", ")))
+                .append(" FROM ").append(table).append(" WHERE owner = ? AND date BETWEEN ? AND ?");
+        args.add(owner);
+        args.add(start);
+        args.add(end);
+        if (completed != null) {
+            sql.append(" AND completed = ?");
+            args.add(completed);
+        }
+        if (afterDate != null) {
+            sql.append(" AND (date > ? OR (date = ? AND id > ?))");
+            args.add(afterDate);
+            args.add(afterDate);
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY date, id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), rowMapper(columns), args.toArray());
+    }
+
+    private RowMapper<TaskResponse> rowMapper(Set<TaskField> columns) {
+        return (rs, rowNum) -> {
+            TaskResponse task = new TaskResponse();
+            task.setId(rs.getLong("id"));
+            Timestamp date = rs.getTimestamp("date");
+            task.setDate(date == null ? null : date.toLocalDateTime());
+            if (columns.contains(TaskField.TITLE)) {
+                task.setTitle(rs.getString("title"));
+            }
+            if (columns.contains(TaskField.DESCRIPTION)) {
+                task.setDescription(rs.getString("description"));
+            }
+            if (columns.contains(TaskField.COMPLETED)) {
+                task.setCompleted(rs.getBoolean("completed"));
+            }
+            if (columns.contains(TaskField.VERSION)) {
+                task.setVersion(rs.getLong("version"));
+            }
+            return task;
+        };
+    }
+}
@@ -1,15 +1,104 @@
 package org.example.taskService.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.taskService.dto.TaskResponse;
 import org.example.taskService.model.Task;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
-    List<Task> findByDateAndCompleted(LocalDateTime date, boolean completed);
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskBatchRepository, TaskSearchRepository,
+        TaskProjectionRepository, TaskStatisticsRepository {
+    List<Task> findByOwnerAndDateAndCompleted(String owner, LocalDateTime date, boolean completed);
 
-    List<Task> findByDateBetweenAndCompleted(LocalDateTime startDate, LocalDateTime endDate, boolean completed);
+    List<Task> findByOwnerAndDateBetweenAndCompleted(String owner, LocalDateTime startDate, LocalDateTime endDate, boolean completed);
+
+    boolean existsByOwnerAndId(String owner, Long id);
+
+    @Query("SELECT new org.example.taskService.dto.TaskResponse(t.id, t.title, t.description, t.date, t.completed, t.version) " +
+            "FROM Task t WHERE t.owner = :owner AND t.completed = :completed AND t.date BETWEEN :startDate AND :endDate " +
+            "ORDER BY t.date, t.id")
+    List<TaskResponse> findPage(@Param("owner") String owner,
+                                @Param("startDate") LocalDateTime startDate,
+                                @Param("endDate") LocalDateTime endDate,
+                                @Param("completed") boolean completed,
+                                Pageable pageable);
+
+    @Query("SELECT new org.example.taskService.dto.TaskResponse(t.id, t.title, t.description, t.date, t.completed, t.version) " +
+            "FROM Task t WHERE t.owner = :owner AND t.completed = :completed AND t.date BETWEEN :startDate AND :endDate " +
+            "AND (t.date > :afterDate OR (t.date = :afterDate AND t.id > :afterId)) " +
+            "ORDER BY t.date, t.id")
+    List<TaskResponse> findPageAfter(@Param("owner") String owner,
+                                     @Param("startDate") LocalDateTime startDate,
+                                     @Param("endDate") LocalDateTime endDate,
+                                     @Param("completed") boolean completed,
+                                     @Param("afterDate") LocalDateTime afterDate,
+                                     @Param("afterId") Long afterId,
+                                     Pageable pageable);
+
+    /**
+     * Rows are fetched from the JDBC cursor in chunks and projected to DTOs, so the persistence
+     * context stays empty however many rows are read. Must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new org.example.taskService.dto.TaskResponse(t.id, t.title, t.description, t.date, t.completed, t.version) " +
+            "FROM Task t WHERE t.owner = :owner AND t.completed IN :statuses AND t.date BETWEEN :startDate AND :endDate " +
+            "ORDER BY t.date, t.id")
+    Stream<TaskResponse> streamByDateBetweenAndCompletedIn(@Param("owner") String owner,
+                                                           @Param("startDate") LocalDateTime startDate,
+                                                           @Param("endDate") LocalDateTime endDate,
+                                                           @Param("statuses") Collection<Boolean> statuses);
+
+    @Query("SELECT new org.example.taskService.dto.TaskResponse(t.id, t.title, t.description, t.date, t.completed, t.version) " +
+            "FROM Task t WHERE t.id = :id AND t.owner = :owner")
+    Optional<TaskResponse> findResponseById(@Param("owner") String owner, @Param("id") Long id);
+
+    @Query("SELECT t.id FROM Task t WHERE t.owner = :owner AND t.id IN :ids")
+    List<Long> findExistingIds(@Param("owner") String owner, @Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.date FROM Task t WHERE t.id = :id AND t.owner = :owner")
+    Optional<LocalDateTime> findDateById(@Param("owner") String owner, @Param("id") Long id);
+
+    @Query("SELECT DISTINCT t.date FROM Task t WHERE t.owner = :owner AND t.id IN :ids AND t.date IS NOT NULL")
+    List<LocalDateTime> findDatesByIds(@Param("owner") String owner, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.title = :title, t.description = :description, t.version = t.version + 1 " +
+            "WHERE t.id = :id AND t.owner = :owner")
+    int updateTitleAndDescription(@Param("owner") String owner,
+                                  @Param("id") Long id,
+                                  @Param("title") String title,
+                                  @Param("description") String description);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.title = :title, t.description = :description, t.version = t.version + 1 " +
+            "WHERE t.id = :id AND t.owner = :owner AND t.version = :version")
+    int updateTitleAndDescriptionAtVersion(@Param("owner") String owner,
+                                           @Param("id") Long id,
+                                           @Param("version") long version,
+                                           @Param("title") String title,
+                                           @Param("description") String description);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.completed = CASE WHEN t.completed = true THEN false ELSE true END, " +
+            "t.version = t.version + 1 WHERE t.id = :id AND t.owner = :owner")
+    int toggleCompletion(@Param("owner") String owner, @Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.id = :id AND t.owner = :owner")
+    int deleteTaskById(@Param("owner") String owner, @Param("id") Long id);
 }
@@ -0,0 +1,14 @@
+package org.example.taskService.repository;
+
+import org.example.taskService.dto.TaskResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TaskSearchRepository {
+    /**
+     * Tasks of {@code owner} matching every word of {@code query} in the title or description, best matches first.
+     * {@code start}, {@code end} and {@code completed} are optional filters.
+     */
+    List<TaskResponse> search(String owner, String query, LocalDateTime start, LocalDateTime end, Boolean completed, int limit);
+}
@@ -0,0 +1,106 @@
+package org.example.taskService.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.taskService.dto.TaskResponse;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Searches the generated {@code search_vector} column through its GIN index on PostgreSQL, ranked with
+ * {@code ts_rank}, where title words weigh more than description words. Other databases, such as H2 in tests,
+ * get a {@code LIKE} scan that requires every word and ranks tasks by the number of words found in the title.
+ */
+@RequiredArgsConstructor
+public class TaskSearchRepositoryImpl implements TaskSearchRepository {
+    private static final String COLUMNS = "id, title, description, date, completed, version";
+
+    private static final RowMapper<TaskResponse> TASK_RESPONSE = (rs, rowNum) -> {
+        Timestamp date = rs.getTimestamp("date");
+        return new TaskResponse(rs.getLong("id"), rs.getString("title"), rs.getString("description"),
+                date == null ? null : date.toLocalDateTime(), rs.getBoolean("completed"), rs.getLong("version"));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    @Override
+    public List<TaskResponse> search(String owner, String query, LocalDateTime start, LocalDateTime end, Boolean completed, int limit) {
+        return isPostgres()
+                ? searchVector(owner, query, start, end, completed, limit)
+                : searchLike(owner, query, start, end, completed, limit);
+    }
+
+    private List<TaskResponse> searchVector(String owner, String query, LocalDateTime start, LocalDateTime end, Boolean completed,
+                                            int limit) {
+        List<Object> args = new ArrayList<>();
+        args.add(query);
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS
+                + " FROM tasks, websearch_to_tsquery('simple', ?) query WHERE search_vector @@ query");
+        appendFilters(sql, args, owner, start, end, completed);
+        sql.append(" ORDER BY ts_rank(search_vector, query) DESC, date, id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), TASK_RESPONSE, args.toArray());
+    }
+
+    private List<TaskResponse> searchLike(String owner, String query, LocalDateTime start, LocalDateTime end, Boolean completed,
+                                          int limit) {
+        List<String> patterns = new ArrayList<>();
+        for (String word : query.toLowerCase(Locale.ROOT).split("\\s+")) {
+            if (!word.isEmpty()) {
+                patterns.add("%" + word.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%");
+            }
+        }
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM tasks WHERE 1 = 1");
+        for (String pattern : patterns) {
+            sql.append(" AND (LOWER(title) LIKE ? ESCAPE '\\' OR LOWER(description) LIKE ? ESCAPE '\\')");
+            args.add(pattern);
+            args.add(pattern);
+        }
+        appendFilters(sql, args, owner, start, end, completed);
+        sql.append(" ORDER BY ");
+        for (String pattern : patterns) {
+            sql.append("CASE WHEN LOWER(title) LIKE ? ESCAPE '\\' THEN 1 ELSE 0 END + ");
+            args.add(pattern);
+        }
+        sql.append("0 DESC, date, id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), TASK_RESPONSE, args.toArray());
+    }
+
+    private void appendFilters(StringBuilder sql, List<Object> args, String owner, LocalDateTime start, LocalDateTime end,
+                               Boolean completed) {
+        sql.append(" AND owner = ?");
+        args.add(owner);
+        if (completed != null) {
+            sql.append(" AND completed = ?");
+            args.add(completed);
+        }
+        if (start != null) {
+            sql.append(" AND date >= ?");
+            args.add(Timestamp.valueOf(start));
+        }
+        if (end != null) {
+            sql.append(" AND date <= ?");
+            args.add(Timestamp.valueOf(end));
+        }
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = Boolean.TRUE.equals(jdbcTemplate.execute(
+                    (ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class)));
+            postgres = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.taskService.repository;
+
+import org.example.taskService.dto.TaskBucket;
+import org.example.taskService.dto.TaskBucketCounts;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TaskStatisticsRepository {
+    /**
+     * Counts completed and open tasks dated from {@code start} to {@code end} per {@code bucket}, grouped by the
+     * database, ordered by bucket start. Buckets without tasks are not returned. {@code completed} is an optional
+     * filter.
+     */
+    List<TaskBucketCounts> countByBucket(String owner, TaskBucket bucket, LocalDateTime start, LocalDateTime end, Boolean completed);
+
+    /**
+     * The same counts read from {@code tasks_archive}, which holds only completed tasks.
+     */
+    List<TaskBucketCounts> countArchivedByBucket(String owner, TaskBucket bucket, LocalDateTime start, LocalDateTime end);
+}
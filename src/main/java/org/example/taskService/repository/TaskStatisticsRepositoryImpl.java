@@ -0,0 +1,75 @@
+package org.example.taskService.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.taskService.dto.TaskBucket;
+import org.example.taskService.dto.TaskBucketCounts;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Groups by {@code date_trunc} in the database, so a chart costs one row per bucket instead of one per task.
+ * With a completion filter the scan is a range of the {@code (owner, completed, date)} index. PostgreSQL starts
+ * weeks on Monday; H2 does so only for {@code ISO_WEEK}, which it takes as a keyword rather than a string.
+ * Only enum constants end up in the SQL text; every value is a bind parameter.
+ */
+@RequiredArgsConstructor
+public class TaskStatisticsRepositoryImpl implements TaskStatisticsRepository {
+    private static final RowMapper<TaskBucketCounts> BUCKET_COUNTS = (rs, rowNum) -> new TaskBucketCounts(
+            rs.getTimestamp("bucket").toLocalDateTime(), rs.getLong("completed_count"), rs.getLong("open_count"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean postgres;
+
+    @Override
+    public List<TaskBucketCounts> countByBucket(String owner, TaskBucket bucket, LocalDateTime start, LocalDateTime end,
+                                                Boolean completed) {
+        return countByBucket("tasks", owner, bucket, start, end, completed);
+    }
+
+    @Override
+    public List<TaskBucketCounts> countArchivedByBucket(String owner, TaskBucket bucket, LocalDateTime start, LocalDateTime end) {
+        return countByBucket("tasks_archive", owner, bucket, start, end, null);
+    }
+
+    private List<TaskBucketCounts> countByBucket(String table, String owner, TaskBucket bucket, LocalDateTime start,
+                                                 LocalDateTime end, Boolean completed) {
+        List<Object> args = new ArrayList<>();
+        // grouping the derived column keeps PostgreSQL from comparing two copies of the date_trunc expression
+        StringBuilder sql = new StringBuilder("SELECT bucket, SUM(CASE WHEN completed THEN 1 ELSE 0 END) AS completed_count, ")
+                .append("SUM(CASE WHEN completed THEN 0 ELSE 1 END) AS open_count FROM (SELECT date_trunc(")
+                .append(truncationField(bucket)).append(", date) AS bucket, completed FROM ").append(table)
+                .append(" WHERE owner = ? AND date BETWEEN ? AND ?");
+        args.add(owner);
+        args.add(start);
+        args.add(end);
+        if (completed != null) {
+            sql.append(" AND completed = ?");
+            args.add(completed);
+        }
+        sql.append(") buckets GROUP BY bucket ORDER BY bucket");
+        return jdbcTemplate.query(sql.toString(), BUCKET_COUNTS, args.toArray());
+    }
+
+    private String truncationField(TaskBucket bucket) {
+        if (bucket == TaskBucket.WEEK && !isPostgres()) {
+            return "ISO_WEEK";
+        }
+        return "'" + bucket.fieldName() + "'";
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = Boolean.TRUE.equals(jdbcTemplate.execute(
+                    (ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class)));
+            postgres = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,357 @@
+package org.example.taskService.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.taskService.config.TaskCacheProperties;
+import org.example.taskService.dto.TaskBatchItemResult;
+import org.example.taskService.dto.TaskBatchItemStatus;
+import org.example.taskService.dto.TaskBucket;
+import org.example.taskService.dto.TaskCreationRequest;
+import org.example.taskService.dto.TaskField;
+import org.example.taskService.dto.TaskPage;
+import org.example.taskService.dto.TaskResponse;
+import org.example.taskService.dto.TaskStatisticsResponse;
+import org.example.taskService.dto.TaskSummaryResponse;
+import org.example.taskService.dto.TaskUpdateRequest;
+import org.example.taskService.repository.TaskRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded in-process cache of interval reads in front of {@link TaskServiceImpl}.
+ * <p>
+ * Rolling week and month windows are snapped to {@code task.cache.window-granularity}, so all requests
+ * within one step share an entry. Writes are applied by the delegate first, and then only the entries
+ * whose window contains the written task's date are dropped. Entries also expire after {@code task.cache.ttl},
+ * which bounds staleness caused by writes that bypass this service.
+ * <p>
+ * {@link TaskChangeVersion} is bumped again once the entries are dropped, so a list ETag issued after a write
+ * never labels a page that was still served from before it. A page loaded while a write was committing is
+ * not kept, for the same reason.
+ * <p>
+ * With read replicas, a page may have been loaded from a replica that had not yet seen a write. Reads pinned to
+ * the primary after the client's own write therefore skip the cached page; the page they load replaces it. Pages
+ * read from a replica within {@code task.replica.max-lag} of a write are served but not kept.
+ * <p>
+ * Entries are kept per owner, and a write only drops entries of the owner that made it.
+ */
+@Service
+@Timed(value = "task.service", histogram = true)
+@Primary
+@ConditionalOnProperty(name = "task.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CachingTaskService implements TaskService {
+    private final TaskService delegate;
+    private final TaskRepository taskRepository;
+    private final TaskChangeVersion taskChangeVersion;
+    private final TaskReplicaLag taskReplicaLag;
+    private final Duration windowGranularity;
+    private final Cache<IntervalKey, TaskPage> pages;
+    private final Cache<TaskKey, LocalDateTime> taskDates;
+
+    public CachingTaskService(TaskServiceImpl delegate, TaskRepository taskRepository, TaskChangeVersion taskChangeVersion,
+                              TaskReplicaLag taskReplicaLag, TaskCacheProperties properties, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.taskRepository = taskRepository;
+        this.taskChangeVersion = taskChangeVersion;
+        this.taskReplicaLag = taskReplicaLag;
+        this.windowGranularity = properties.getWindowGranularity();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        this.taskDates = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "tasks.intervals");
+    }
+
+    @Override
+    public TaskResponse createTask(TaskCreationRequest taskRequest) {
+        TaskResponse createdTask = delegate.createTask(taskRequest);
+        invalidate(createdTask.getDate(), createdTask.isCompleted());
+        taskChangeVersion.bump();
+        return createdTask;
+    }
+
+    @Override
+    public TaskResponse updateTask(Long taskId, TaskUpdateRequest taskUpdate) {
+        TaskResponse updatedTask = delegate.updateTask(taskId, taskUpdate);
+        invalidate(updatedTask.getDate(), updatedTask.isCompleted());
+        taskChangeVersion.bump();
+        return updatedTask;
+    }
+
+    @Override
+    public TaskResponse updateTask(Long taskId, TaskUpdateRequest taskUpdate, long expectedVersion) {
+        TaskResponse updatedTask = delegate.updateTask(taskId, taskUpdate, expectedVersion);
+        invalidate(updatedTask.getDate(), updatedTask.isCompleted());
+        taskChangeVersion.bump();
+        return updatedTask;
+    }
+
+    @Override
+    public TaskResponse getTask(Long id) {
+        return delegate.getTask(id);
+    }
+
+    @Override
+    public void toggleTaskCompletion(Long id) {
+        delegate.toggleTaskCompletion(id);
+        dateOf(id).ifPresent(this::invalidateBothStatuses);
+        taskChangeVersion.bump();
+    }
+
+    @Override
+    public void deleteTask(Long id) {
+        Optional<LocalDateTime> date = dateOf(id);
+        delegate.deleteTask(id);
+        date.ifPresent(this::invalidateBothStatuses);
+        taskChangeVersion.bump();
+    }
+
+    @Override
+    public List<TaskBatchItemResult> createTasks(List<TaskCreationRequest> taskRequests) {
+        List<TaskBatchItemResult> results = delegate.createTasks(taskRequests);
+        Set<LocalDateTime> completedDates = new HashSet<>();
+        Set<LocalDateTime> openDates = new HashSet<>();
+        results.forEach(result -> (result.getTask().isCompleted() ? completedDates : openDates).add(result.getTask().getDate()));
+        invalidate(completedDates, openDates);
+        taskChangeVersion.bump();
+        return results;
+    }
+
+    /**
+     * Resolving the date of every id in a batch would cost a query per id, so batches clear the whole cache.
+     */
+    @Override
+    public List<TaskBatchItemResult> toggleTasksCompletion(List<Long> ids) {
+        List<TaskBatchItemResult> results = delegate.toggleTasksCompletion(ids);
+        invalidateAll();
+        return results;
+    }
+
+    /**
+     * Coalesced groups are single toggles of recently read tasks, so unlike batches they invalidate only the
+     * windows of their own tasks. The dates missing from the date cache are read with one query per group.
+     */
+    @Override
+    public List<TaskBatchItemResult> toggleTasksCompletionCoalesced(List<Long> ids) {
+        List<TaskBatchItemResult> results = delegate.toggleTasksCompletionCoalesced(ids);
+        Set<Long> toggledIds = results.stream()
+                .filter(result -> result.getStatus() == TaskBatchItemStatus.TOGGLED)
+                .map(TaskBatchItemResult::getId)
+                .collect(Collectors.toSet());
+        Set<LocalDateTime> dates = datesOf(toggledIds);
+        invalidate(dates, dates);
+        taskChangeVersion.bump();
+        return results;
+    }
+
+    @Override
+    public List<TaskBatchItemResult> deleteTasks(List<Long> ids) {
+        List<TaskBatchItemResult> results = delegate.deleteTasks(ids);
+        invalidateAll();
+        return results;
+    }
+
+    /**
+     * Drops every cached page, for writes that cannot tell which windows they touched.
+     */
+    public void invalidateAll() {
+        pages.invalidateAll();
+        taskChangeVersion.bump();
+    }
+
+    @Override
+    public TaskSummaryResponse getTaskSummary() {
+        return delegate.getTaskSummary();
+    }
+
+    @Override
+    public TaskStatisticsResponse getTaskStatistics(LocalDateTime start, LocalDateTime end, TaskBucket bucket, Boolean completed,
+                                                    boolean includeArchived) {
+        return delegate.getTaskStatistics(start, end, bucket, completed, includeArchived);
+    }
+
+    @Override
+    public TaskPage getTasksByDateRangeAndCompletionStatus(LocalDateTime start, LocalDateTime end, boolean completed, String cursor, int limit, Set<TaskField> fields) {
+        return cached(start, end, completed, cursor, limit, fields);
+    }
+
+    /**
+     * History reads are rare and span arbitrary ranges, so they are not cached.
+     */
+    @Override
+    public TaskPage getTasksIncludingArchived(LocalDateTime start, LocalDateTime end, boolean completed, String cursor, int limit, Set<TaskField> fields) {
+        return delegate.getTasksIncludingArchived(start, end, completed, cursor, limit, fields);
+    }
+
+    @Override
+    public TaskPage searchTasks(String query, LocalDateTime start, LocalDateTime end, Boolean completed, int limit) {
+        return delegate.searchTasks(query, start, end, completed, limit);
+    }
+
+    @Override
+    public TaskPage getTasksByDateAndCompletionStatus(LocalDateTime date, boolean completed, String cursor, int limit, Set<TaskField> fields) {
+        return cached(date, date, completed, cursor, limit, fields);
+    }
+
+    @Override
+    public TaskPage getTasksByWeekAndCompletionStatus(boolean completed, boolean includeArchived, String cursor, int limit, Set<TaskField> fields) {
+        if (includeArchived) {
+            return delegate.getTasksByWeekAndCompletionStatus(completed, true, cursor, limit, fields);
+        }
+        LocalDateTime end = snapUp(LocalDateTime.now());
+        return cached(end.minusWeeks(1), end, completed, cursor, limit, fields);
+    }
+
+    @Override
+    public TaskPage getTasksByMonthAndCompletionStatus(boolean completed, boolean includeArchived, String cursor, int limit, Set<TaskField> fields) {
+        if (includeArchived) {
+            return delegate.getTasksByMonthAndCompletionStatus(completed, true, cursor, limit, fields);
+        }
+        LocalDateTime end = snapUp(LocalDateTime.now());
+        return cached(end.minusMonths(1), end, completed, cursor, limit, fields);
+    }
+
+    @Override
+    public TaskPage getUpcomingTasksByWeekAndCompletionStatus(boolean completed, boolean includeArchived, String cursor, int limit, Set<TaskField> fields) {
+        if (includeArchived) {
+            return delegate.getUpcomingTasksByWeekAndCompletionStatus(completed, true, cursor, limit, fields);
+        }
+        LocalDateTime start = snapDown(LocalDateTime.now());
+        return cached(start, start.plusWeeks(1), completed, cursor, limit, fields);
+    }
+
+    @Override
+    public TaskPage getUpcomingTasksByMonthAndCompletionStatus(boolean completed, boolean includeArchived, String cursor, int limit, Set<TaskField> fields) {
+        if (includeArchived) {
+            return delegate.getUpcomingTasksByMonthAndCompletionStatus(completed, true, cursor, limit, fields);
+        }
+        LocalDateTime start = snapDown(LocalDateTime.now());
+        return cached(start, start.plusMonths(1), completed, cursor, limit, fields);
+    }
+
+    private TaskPage cached(LocalDateTime start, LocalDateTime end, boolean completed, String cursor, int limit,
+                            Set<TaskField> fields) {
+        IntervalKey intervalKey = new IntervalKey(TaskOwnerContext.current(), start, end, completed, cursor, limit, fields);
+        long version = taskChangeVersion.current();
+        TaskPage cachedPage;
+        if (taskReplicaLag.isPinnedToPrimary()) {
+            cachedPage = load(start, end, completed, cursor, limit, fields);
+            pages.put(intervalKey, cachedPage);
+        } else if (taskReplicaLag.mayReadStale()) {
+            cachedPage = pages.getIfPresent(intervalKey);
+            return cachedPage != null ? cachedPage : load(start, end, completed, cursor, limit, fields);
+        } else {
+            cachedPage = pages.get(intervalKey, key -> load(start, end, completed, cursor, limit, fields));
+        }
+        if (taskChangeVersion.current() != version) {
+            pages.invalidate(intervalKey);
+        }
+        return cachedPage;
+    }
+
+    private TaskPage load(LocalDateTime start, LocalDateTime end, boolean completed, String cursor, int limit,
+                          Set<TaskField> fields) {
+        TaskPage page = delegate.getTasksByDateRangeAndCompletionStatus(start, end, completed, cursor, limit, fields);
+        String owner = TaskOwnerContext.current();
+        page.getItems().forEach(task -> taskDates.put(new TaskKey(owner, task.getId()), task.getDate()));
+        return page;
+    }
+
+    /**
+     * Task dates never change, so the date of a task seen in any cached page is remembered.
+     * Other tasks are looked up only while there is something in the cache to invalidate.
+     */
+    private Optional<LocalDateTime> dateOf(Long id) {
+        if (pages.estimatedSize() == 0) {
+            return Optional.empty();
+        }
+        String owner = TaskOwnerContext.current();
+        LocalDateTime date = taskDates.getIfPresent(new TaskKey(owner, id));
+        return date != null ? Optional.of(date) : taskRepository.findDateById(owner, id);
+    }
+
+    /**
+     * Like {@link #dateOf} for several tasks, with one query for all the dates that are not remembered.
+     */
+    private Set<LocalDateTime> datesOf(Set<Long> ids) {
+        Set<LocalDateTime> dates = new HashSet<>();
+        if (pages.estimatedSize() == 0 || ids.isEmpty()) {
+            return dates;
+        }
+        String owner = TaskOwnerContext.current();
+        List<Long> unknownIds = new ArrayList<>();
+        for (Long id : ids) {
+            LocalDateTime date = taskDates.getIfPresent(new TaskKey(owner, id));
+            if (date != null) {
+                dates.add(date);
+            } else {
+                unknownIds.add(id);
+            }
+        }
+        if (!unknownIds.isEmpty()) {
+            dates.addAll(taskRepository.findDatesByIds(owner, unknownIds));
+        }
+        return dates;
+    }
+
+    private void invalidateBothStatuses(LocalDateTime date) {
+        invalidate(Set.of(date), Set.of(date));
+    }
+
+    private void invalidate(LocalDateTime date, boolean completed) {
+        invalidate(completed ? Set.of(date) : Set.of(), completed ? Set.of() : Set.of(date));
+    }
+
+    /**
+     * Drops the pages containing any of the dates, in a single pass over the cache however many dates a
+     * write touched.
+     */
+    private void invalidate(Set<LocalDateTime> completedDates, Set<LocalDateTime> openDates) {
+        if (completedDates.isEmpty() && openDates.isEmpty()) {
+            return;
+        }
+        String owner = TaskOwnerContext.current();
+        pages.asMap().keySet().removeIf(key -> key.owner().equals(owner)
+                && (key.completed() ? completedDates : openDates).stream().anyMatch(key::contains));
+    }
+
+    private LocalDateTime snapDown(LocalDateTime time) {
+        long step = windowGranularity.toMillis();
+        long millis = time.toInstant(ZoneOffset.UTC).toEpochMilli();
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis - Math.floorMod(millis, step)), ZoneOffset.UTC);
+    }
+
+    private LocalDateTime snapUp(LocalDateTime time) {
+        return snapDown(time).plus(windowGranularity);
+    }
+
+    private record TaskKey(String owner, Long id) {
+    }
+
+    private record IntervalKey(String owner, LocalDateTime start, LocalDateTime end, boolean completed, String cursor, int limit,
+                               Set<TaskField> fields) {
+        boolean contains(LocalDateTime date) {
+            return !date.isBefore(start) && !date.isAfter(end);
+        }
+    }
+}
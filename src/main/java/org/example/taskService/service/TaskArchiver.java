@@ -0,0 +1,92 @@
+package org.example.taskService.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskService.config.TaskArchiveProperties;
+import org.example.taskService.repository.ArchivedTaskRepository;
+import org.example.taskService.repository.TaskDailyCountRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves completed tasks older than {@code task.archive.min-age} from {@code tasks} to {@code tasks_archive}.
+ * <p>
+ * Each chunk is copied, deleted and subtracted from the daily counters in its own transaction, so the job can
+ * stop at any point, whether on {@code task.archive.max-chunks-per-run} or a crash, and the next run simply
+ * continues with the oldest remaining tasks. With sharding, every shard is archived in turn and
+ * {@code task.archive.max-chunks-per-run} applies to each of them.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "task.archive.enabled", havingValue = "true")
+public class TaskArchiver {
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final TaskDailyCountRepository taskDailyCountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskArchiveProperties properties;
+    private final TaskChangeVersion taskChangeVersion;
+    private final ObjectProvider<CachingTaskService> cachingTaskService;
+    private final TaskChangeFeed taskChangeFeed;
+    private final TaskShards taskShards;
+
+    public TaskArchiver(ArchivedTaskRepository archivedTaskRepository, TaskDailyCountRepository taskDailyCountRepository,
+                        PlatformTransactionManager transactionManager, TaskArchiveProperties properties,
+                        TaskChangeVersion taskChangeVersion, ObjectProvider<CachingTaskService> cachingTaskService,
+                        TaskChangeFeed taskChangeFeed, TaskShards taskShards) {
+        this.archivedTaskRepository = archivedTaskRepository;
+        this.taskDailyCountRepository = taskDailyCountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.taskChangeVersion = taskChangeVersion;
+        this.cachingTaskService = cachingTaskService;
+        this.taskChangeFeed = taskChangeFeed;
+        this.taskShards = taskShards;
+    }
+
+    @Scheduled(cron = "${task.archive.cron}")
+    public int archive() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime completedBefore = now.minus(properties.getMinAge());
+        int archived = 0;
+        try {
+            for (String shard : taskShards.names()) {
+                for (int chunk = 0; chunk < properties.getMaxChunksPerRun(); chunk++) {
+                    if (chunk > 0) {
+                        Thread.sleep(properties.getPauseBetweenChunks().toMillis());
+                    }
+                    int moved = taskShards.callOn(shard, () -> archiveChunk(completedBefore, now));
+                    archived += moved;
+                    if (moved < properties.getChunkSize()) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            if (archived > 0) {
+                cachingTaskService.ifAvailable(CachingTaskService::invalidateAll);
+                taskChangeFeed.publishResyncAfterCommit();
+                log.info("Archived {} completed tasks dated before {}", archived, completedBefore);
+            }
+        }
+        return archived;
+    }
+
+    private int archiveChunk(LocalDateTime completedBefore, LocalDateTime now) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<Long> ids = archivedTaskRepository.lockArchivableIds(completedBefore, properties.getChunkSize());
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            taskDailyCountRepository.applyArchival(ids);
+            taskChangeVersion.bumpAfterCommit();
+            return archivedTaskRepository.moveToArchive(ids, now);
+        });
+        return moved != null ? moved : 0;
+    }
+}
@@ -0,0 +1,215 @@
+package org.example.taskService.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.example.taskService.config.TaskFeedProperties;
+import org.example.taskService.dto.TaskChangeEvent;
+import org.example.taskService.dto.TaskChangeType;
+import org.example.taskService.dto.TaskResponse;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes task changes to Server-Sent Events subscribers once the writing transaction has committed.
+ * <p>
+ * Publishing never waits for a subscriber: each one has a bounded queue drained by its own virtual thread, and
+ * a subscriber whose queue is full loses its queued events and gets a single {@code RESYNC} in their place. The
+ * last {@code task.feed.history-size} events are kept so a client reconnecting with {@code Last-Event-ID} gets
+ * what it missed; if those events are gone, or the id was issued by another instance, it gets a {@code RESYNC}.
+ * Like {@link TaskChangeVersion}, the feed only carries writes made through this instance.
+ * <p>
+ * A subscriber receives the changes of the owner it subscribed as, and every {@code RESYNC}.
+ */
+@Component
+public class TaskChangeFeed {
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final TaskFeedProperties properties;
+    private final Deque<Entry> history = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter resyncs;
+    private long sequence;
+
+    public TaskChangeFeed(TaskFeedProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Gauge.builder("task.feed.subscribers", subscribers, Set::size).register(meterRegistry);
+        this.resyncs = meterRegistry.counter("task.feed.resyncs");
+    }
+
+    /**
+     * Publishes the change of a task of the current owner after the current transaction commits, or right away
+     * outside a transaction. Nothing is published for a rolled back transaction.
+     */
+    public void publishAfterCommit(TaskChangeType type, Long taskId, TaskResponse task) {
+        publishAfterCommit(TaskOwnerContext.current(), type, taskId, task);
+    }
+
+    /**
+     * Tells every subscriber to reload, for bulk writes that are not worth an event per task.
+     */
+    public void publishResyncAfterCommit() {
+        publishAfterCommit(null, TaskChangeType.RESYNC, null, null);
+    }
+
+    /**
+     * @param owner the owner whose subscribers receive the event, or {@code null} for all subscribers
+     */
+    public synchronized void publish(String owner, TaskChangeType type, Long taskId, TaskResponse task) {
+        TaskChangeEvent event = new TaskChangeEvent(eventId(++sequence), type, taskId, task);
+        history.addLast(new Entry(sequence, owner, event));
+        if (history.size() > properties.getHistorySize()) {
+            history.removeFirst();
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (owner == null || owner.equals(subscriber.owner)) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    /**
+     * Replays the events of the current owner after {@code lastEventId}, if any, and then streams new ones.
+     * Registering under the publishing lock guarantees that no event falls between the replay and the live stream.
+     */
+    public synchronized SseEmitter subscribe(String lastEventId) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(properties.getTimeout().toMillis()), TaskOwnerContext.current());
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            List<TaskChangeEvent> missed = eventsAfter(lastEventId.trim(), subscriber.owner);
+            if (missed == null) {
+                subscriber.offer(resyncEvent());
+            } else {
+                missed.forEach(subscriber::offer);
+            }
+        }
+        subscribers.add(subscriber);
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(error -> subscribers.remove(subscriber));
+        return subscriber.emitter;
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private void publishAfterCommit(String owner, TaskChangeType type, Long taskId, TaskResponse task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(owner, type, taskId, task);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(owner, type, taskId, task);
+            }
+        });
+    }
+
+    /**
+     * @return the retained events for {@code owner} after {@code lastEventId}, or {@code null} if some of them are gone
+     */
+    private List<TaskChangeEvent> eventsAfter(String lastEventId, String owner) {
+        long lastSequence;
+        try {
+            if (!lastEventId.startsWith(epoch + "-")) {
+                return null;
+            }
+            lastSequence = Long.parseLong(lastEventId.substring(epoch.length() + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (lastSequence > sequence) {
+            return null;
+        }
+        if (lastSequence < sequence && (history.isEmpty() || history.getFirst().sequence() > lastSequence + 1)) {
+            return null;
+        }
+        List<TaskChangeEvent> missed = new ArrayList<>();
+        for (Entry entry : history) {
+            if (entry.sequence() > lastSequence && (entry.owner() == null || entry.owner().equals(owner))) {
+                missed.add(entry.event());
+            }
+        }
+        return missed;
+    }
+
+    /**
+     * Carries the id of the latest event, so a client that reloads and later reconnects resumes from there.
+     */
+    private TaskChangeEvent resyncEvent() {
+        return new TaskChangeEvent(eventId(sequence), TaskChangeType.RESYNC, null, null);
+    }
+
+    private String eventId(long eventSequence) {
+        return epoch + "-" + eventSequence;
+    }
+
+    private record Entry(long sequence, String owner, TaskChangeEvent event) {
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final String owner;
+        private final BlockingQueue<TaskChangeEvent> queue = new ArrayBlockingQueue<>(properties.getSubscriberBufferSize());
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, String owner) {
+            this.emitter = emitter;
+            this.owner = owner;
+        }
+
+        /**
+         * Called under the publishing lock, so {@link #resyncEvent()} sees the sequence of this event.
+         */
+        void offer(TaskChangeEvent event) {
+            if (!queue.offer(event)) {
+                queue.clear();
+                queue.offer(resyncEvent());
+                resyncs.increment();
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                TaskChangeEvent event;
+                while ((event = queue.poll()) != null) {
+                    try {
+                        emitter.send(SseEmitter.event()
+                                .id(event.getId())
+                                .name(event.getType().name().toLowerCase(Locale.ROOT))
+                                .data(event, MediaType.APPLICATION_JSON));
+                    } catch (IOException | IllegalStateException e) {
+                        // the client is gone; the container completes the emitter
+                        subscribers.remove(this);
+                        return;
+                    }
+                }
+                draining.set(false);
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+    }
+}
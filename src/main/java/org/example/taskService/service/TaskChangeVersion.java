@@ -0,0 +1,90 @@
+package org.example.taskService.service;
+
+import org.example.taskService.config.TaskCacheProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory counter of task writes, used to build ETags for list responses without touching the database.
+ * <p>
+ * The counter is bumped only after the writing transaction has completed, so a reader that sees the new
+ * value also sees the new rows. ETags carry the instance start time as well, so a restarted or different
+ * instance never answers 304 for a version it did not issue; like the interval cache, the counter only
+ * reflects writes made through this instance. Every ETag also changes each {@code task.cache.ttl}, the
+ * lifetime of a cached page, so writes made through other instances show up after at most that long.
+ * <p>
+ * The ETags are weak: a list is served as JSON, CBOR or Smile, possibly gzipped, so they identify the content
+ * rather than the bytes. Tomcat also leaves responses with a strong ETag uncompressed.
+ */
+@Component
+public class TaskChangeVersion {
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+    private volatile long lastChangeNanos = System.nanoTime() - Long.MAX_VALUE / 2;
+    private final long windowMillis;
+    private final long ttlMillis;
+
+    public TaskChangeVersion(TaskCacheProperties cacheProperties) {
+        this.windowMillis = cacheProperties.getWindowGranularity().toMillis();
+        this.ttlMillis = Math.max(1, cacheProperties.getTtl().toMillis());
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    public void bump() {
+        lastChangeNanos = System.nanoTime();
+        version.incrementAndGet();
+    }
+
+    /**
+     * Time since the last bump, or a very long time if there was none.
+     */
+    public long nanosSinceLastChange() {
+        return System.nanoTime() - lastChangeNanos;
+    }
+
+    public void bumpAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                bump();
+            }
+        });
+    }
+
+    /**
+     * ETag of a list that depends only on the stored tasks.
+     */
+    public String etag() {
+        return etag(0);
+    }
+
+    /**
+     * ETag of the {@code today} list, which also changes at midnight.
+     */
+    public String dayEtag() {
+        return etag(LocalDate.now().toEpochDay());
+    }
+
+    /**
+     * ETag of a rolling week or month list. The window moves in steps of {@code task.cache.window-granularity},
+     * the same steps {@link CachingTaskService} snaps its windows to.
+     */
+    public String rollingWindowEtag() {
+        return etag(System.currentTimeMillis() / windowMillis);
+    }
+
+    private String etag(long window) {
+        return "W/\"" + epoch + "-" + version.get() + "-" + window + "-" + System.currentTimeMillis() / ttlMillis + "\"";
+    }
+}
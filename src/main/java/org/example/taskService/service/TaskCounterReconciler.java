@@ -0,0 +1,99 @@
+package org.example.taskService.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskService.model.TaskDailyCount;
+import org.example.taskService.repository.TaskDailyCountRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Recounts tasks per owner and day and rewrites only the counter rows that drifted, for example after
+ * writes that bypassed the service or a counter row that was missing when a task was toggled.
+ * <p>
+ * The full recount is not locked and only finds the days that may have drifted; a write committed meanwhile
+ * would make it look wrong. Each of those days is then recounted again under its counter row lock, in a short
+ * transaction of its own, so concurrent increments are neither lost nor blocked for the whole run.
+ * With sharding, every shard is reconciled in turn.
+ */
+@Slf4j
+@Component
+public class TaskCounterReconciler {
+    private final TaskDailyCountRepository taskDailyCountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskShards taskShards;
+
+    public TaskCounterReconciler(TaskDailyCountRepository taskDailyCountRepository,
+                                 PlatformTransactionManager transactionManager, TaskShards taskShards) {
+        this.taskDailyCountRepository = taskDailyCountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskShards = taskShards;
+    }
+
+    @Scheduled(cron = "${task.counters.reconcile-cron}")
+    public int reconcile() {
+        int fixedDays = taskShards.sumOverShards(this::reconcileShard);
+        if (fixedDays > 0) {
+            log.warn("Reconciled task counters for {} days", fixedDays);
+        }
+        return fixedDays;
+    }
+
+    /**
+     * A database that had tasks before the counters existed starts with an empty counter table; it is filled
+     * at startup instead of reporting zeros until the first scheduled run. A shard that cannot be backfilled
+     * yet does not fail the startup; the scheduled run fills it later.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int backfill() {
+        int filledDays = taskShards.sumOverShards(() -> {
+            try {
+                return taskDailyCountRepository.count() == 0 ? reconcileShard() : 0;
+            } catch (DataAccessException e) {
+                log.warn("Could not backfill task counters, leaving them to the scheduled reconcile", e);
+                return 0;
+            }
+        });
+        if (filledDays > 0) {
+            log.info("Backfilled task counters for {} days", filledDays);
+        }
+        return filledDays;
+    }
+
+    private int reconcileShard() {
+        Map<TaskDailyCount.Key, TaskDailyCount> actualCounts = new HashMap<>();
+        for (TaskDailyCount actualCount : taskDailyCountRepository.countTasksByDate()) {
+            actualCounts.put(new TaskDailyCount.Key(actualCount.getOwner(), actualCount.getDate()), actualCount);
+        }
+
+        Set<TaskDailyCount.Key> suspectDays = new LinkedHashSet<>();
+        for (TaskDailyCount storedCount : taskDailyCountRepository.findAll()) {
+            TaskDailyCount.Key key = new TaskDailyCount.Key(storedCount.getOwner(), storedCount.getDate());
+            TaskDailyCount actualCount = actualCounts.remove(key);
+            long completed = actualCount != null ? actualCount.getCompletedCount() : 0;
+            long open = actualCount != null ? actualCount.getOpenCount() : 0;
+            if (storedCount.getCompletedCount() != completed || storedCount.getOpenCount() != open) {
+                suspectDays.add(key);
+            }
+        }
+        suspectDays.addAll(actualCounts.keySet());
+
+        int fixedDays = 0;
+        for (TaskDailyCount.Key day : suspectDays) {
+            if (Boolean.TRUE.equals(transactionTemplate.execute(
+                    status -> taskDailyCountRepository.reconcileDate(day.getOwner(), day.getDate())))) {
+                fixedDays++;
+            }
+        }
+        return fixedDays;
+    }
+}
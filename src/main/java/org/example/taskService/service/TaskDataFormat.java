@@ -0,0 +1,24 @@
+package org.example.taskService.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.example.taskService.exception.InvalidDataFormatException;
+
+@Getter
+@RequiredArgsConstructor
+public enum TaskDataFormat {
+    NDJSON("ndjson", "application/x-ndjson"),
+    CSV("csv", "text/csv");
+
+    private final String value;
+    private final String contentType;
+
+    public static TaskDataFormat fromValue(String value) {
+        for (TaskDataFormat format : values()) {
+            if (format.value.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new InvalidDataFormatException(value);
+    }
+}
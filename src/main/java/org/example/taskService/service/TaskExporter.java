@@ -0,0 +1,102 @@
+package org.example.taskService.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import org.example.taskService.dto.TaskResponse;
+import org.example.taskService.repository.TaskRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Writes tasks to an output stream one row at a time, straight from the database cursor.
+ * Neither the result set nor the serialized output is held in memory, so heap use does not
+ * depend on the number of exported rows.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskExporter {
+    private static final LocalDateTime EARLIEST_DATE = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    /**
+     * One fetch of the export cursor; the output is flushed once per this many rows rather than after each.
+     */
+    private static final int FLUSH_BATCH_ROWS = 1000;
+
+    private final TaskRepository taskRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void export(LocalDateTime start, LocalDateTime end, Boolean completed, TaskDataFormat format, OutputStream out) throws IOException {
+        List<Boolean> statuses = completed != null ? List.of(completed) : List.of(true, false);
+        try (Stream<TaskResponse> tasks = taskRepository.streamByDateBetweenAndCompletedIn(TaskOwnerContext.current(),
+                start != null ? start : EARLIEST_DATE, end != null ? end : LATEST_DATE, statuses)) {
+            if (format == TaskDataFormat.CSV) {
+                writeCsv(tasks, out);
+            } else {
+                writeNdjson(tasks, out);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeNdjson(Stream<TaskResponse> tasks, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = writer.createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+        int[] rows = {0};
+        tasks.forEach(task -> {
+            try {
+                writer.writeValue(generator, task);
+                generator.writeRaw('\n');
+                if (++rows[0] % FLUSH_BATCH_ROWS == 0) {
+                    generator.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        generator.flush();
+    }
+
+    private void writeCsv(Stream<TaskResponse> tasks, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("id,title,description,date,completed\n");
+        tasks.forEach(task -> {
+            try {
+                writer.write(task.getId() + "," + csvField(task.getTitle()) + "," + csvField(task.getDescription()) + ","
+                        + task.getDate() + "," + task.isCompleted() + "\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -0,0 +1,239 @@
+package org.example.taskService.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.example.taskService.config.TaskImportProperties;
+import org.example.taskService.dto.TaskCreationRequest;
+import org.example.taskService.dto.TaskImportRejection;
+import org.example.taskService.dto.TaskImportReport;
+import org.example.taskService.dto.TaskImportRow;
+import org.example.taskService.model.Task;
+import org.example.taskService.repository.TaskDailyCountRepository;
+import org.example.taskService.repository.TaskRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Loads tasks from NDJSON or CSV input. Rows are validated with the constraints of
+ * {@link TaskCreationRequest}; invalid rows are reported and skipped, valid rows are written in
+ * chunks of {@code task.import.chunk-size}, each in its own transaction, so a failure only loses
+ * the current chunk. Since an import can touch any window, the whole {@link CachingTaskService}
+ * cache is dropped afterwards.
+ */
+@Service
+public class TaskImporter {
+    private final TaskRepository taskRepository;
+    private final TaskDailyCountRepository taskDailyCountRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskImportProperties properties;
+    private final TaskChangeVersion taskChangeVersion;
+    private final ObjectProvider<CachingTaskService> cachingTaskService;
+    private final TaskChangeFeed taskChangeFeed;
+
+    public TaskImporter(TaskRepository taskRepository, TaskDailyCountRepository taskDailyCountRepository,
+                        ObjectMapper objectMapper, Validator validator,
+                        PlatformTransactionManager transactionManager, TaskImportProperties properties,
+                        TaskChangeVersion taskChangeVersion, ObjectProvider<CachingTaskService> cachingTaskService,
+                        TaskChangeFeed taskChangeFeed) {
+        this.taskRepository = taskRepository;
+        this.taskDailyCountRepository = taskDailyCountRepository;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.taskChangeVersion = taskChangeVersion;
+        this.cachingTaskService = cachingTaskService;
+        this.taskChangeFeed = taskChangeFeed;
+    }
+
+    public TaskImportReport importTasks(TaskDataFormat format, InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        ImportRun run = new ImportRun();
+        try {
+            if (format == TaskDataFormat.CSV) {
+                readCsv(reader, run);
+            } else {
+                readNdjson(reader, run);
+            }
+            run.flush();
+        } finally {
+            if (run.imported > 0) {
+                cachingTaskService.ifAvailable(CachingTaskService::invalidateAll);
+                taskChangeFeed.publishResyncAfterCommit();
+            }
+        }
+        return new TaskImportReport(run.imported, run.rejected, run.rejections);
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        long row = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            row++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                run.accept(row, objectMapper.readValue(line, TaskImportRow.class));
+            } catch (JsonProcessingException e) {
+                run.reject(row, "Malformed row: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    /**
+     * Columns are matched by the header names, so files produced by the CSV export can be imported as is.
+     */
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        List<String> header = readCsvRecord(reader);
+        if (header == null) {
+            return;
+        }
+        int titleColumn = header.indexOf("title");
+        int descriptionColumn = header.indexOf("description");
+        int dateColumn = header.indexOf("date");
+        int completedColumn = header.indexOf("completed");
+
+        long row = 0;
+        List<String> record;
+        while ((record = readCsvRecord(reader)) != null) {
+            row++;
+            try {
+                String date = column(record, dateColumn);
+                run.accept(row, new TaskImportRow(
+                        column(record, titleColumn),
+                        column(record, descriptionColumn),
+                        date == null || date.isEmpty() ? null : LocalDateTime.parse(date),
+                        Boolean.parseBoolean(column(record, completedColumn))));
+            } catch (DateTimeParseException e) {
+                run.reject(row, "Invalid date: " + e.getParsedString());
+            }
+        }
+    }
+
+    private String column(List<String> record, int index) {
+        return index >= 0 && index < record.size() ? record.get(index) : null;
+    }
+
+    private List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private class ImportRun {
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final String owner = TaskOwnerContext.current();
+        private final List<TaskImportRejection> rejections = new ArrayList<>();
+        private List<Task> chunk = new ArrayList<>();
+        private long imported;
+        private long rejected;
+
+        void accept(long row, TaskImportRow importRow) {
+            TaskCreationRequest creationRequest = new TaskCreationRequest(importRow.getTitle(), importRow.getDescription());
+            String violations = validator.validate(creationRequest).stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            if (!violations.isEmpty()) {
+                reject(row, violations);
+                return;
+            }
+
+            Task task = new Task();
+            task.setOwner(owner);
+            task.setTitle(importRow.getTitle());
+            task.setDescription(importRow.getDescription());
+            task.setDate(importRow.getDate() != null ? importRow.getDate() : startedAt);
+            task.setCompleted(importRow.isCompleted());
+            chunk.add(task);
+            if (chunk.size() >= properties.getChunkSize()) {
+                flush();
+            }
+        }
+
+        void reject(long row, String message) {
+            rejected++;
+            if (rejections.size() < properties.getMaxReportedRejections()) {
+                rejections.add(new TaskImportRejection(row, message));
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            List<Task> tasks = chunk;
+            transactionTemplate.executeWithoutResult(status -> {
+                taskRepository.bulkInsert(tasks);
+                addToDailyCounts(tasks);
+                taskChangeVersion.bumpAfterCommit();
+            });
+            imported += tasks.size();
+            chunk = new ArrayList<>();
+        }
+
+        private void addToDailyCounts(List<Task> tasks) {
+            Map<LocalDate, long[]> counts = new TreeMap<>();
+            for (Task task : tasks) {
+                long[] dayCounts = counts.computeIfAbsent(task.getDate().toLocalDate(), date -> new long[2]);
+                dayCounts[task.isCompleted() ? 0 : 1]++;
+            }
+            counts.forEach((date, dayCounts) -> taskDailyCountRepository.addToDate(owner, date, dayCounts[0], dayCounts[1]));
+        }
+    }
+}
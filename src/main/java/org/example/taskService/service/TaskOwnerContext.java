@@ -0,0 +1,57 @@
+package org.example.taskService.service;
+
+import org.example.taskService.model.Task;
+
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * The owner whose tasks the current thread reads and writes. Set per request from {@code X-Task-Owner};
+ * work done outside a request, and requests without the header, act as {@link #DEFAULT_OWNER}.
+ */
+public final class TaskOwnerContext {
+    public static final String DEFAULT_OWNER = Task.DEFAULT_OWNER;
+
+    private static final Pattern VALID_OWNER = Pattern.compile("[A-Za-z0-9._@-]{1,64}");
+    private static final ThreadLocal<String> OWNER = new ThreadLocal<>();
+
+    private TaskOwnerContext() {
+    }
+
+    /**
+     * Owners are user or tenant ids of up to 64 letters, digits and {@code . _ @ -}.
+     */
+    public static boolean isValid(String owner) {
+        return owner != null && VALID_OWNER.matcher(owner).matches();
+    }
+
+    public static String current() {
+        String owner = OWNER.get();
+        return owner != null ? owner : DEFAULT_OWNER;
+    }
+
+    public static void set(String owner) {
+        OWNER.set(owner);
+    }
+
+    public static void clear() {
+        OWNER.remove();
+    }
+
+    /**
+     * Runs {@code action} as {@code owner} and then restores the previous owner of the thread.
+     */
+    public static <T> T callAs(String owner, Supplier<T> action) {
+        String previous = OWNER.get();
+        OWNER.set(owner);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                OWNER.set(previous);
+            } else {
+                OWNER.remove();
+            }
+        }
+    }
+}
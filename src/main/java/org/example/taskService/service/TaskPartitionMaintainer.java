@@ -0,0 +1,160 @@
+package org.example.taskService.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskService.config.TaskPartitioningProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly range partitions of the PostgreSQL {@code tasks} table: creates the partitions for the
+ * coming months ahead of time and drops the ones that fell out of retention, together with their counter rows.
+ * <p>
+ * A new partition is filled from the default partition and then attached, so rows imported with dates beyond
+ * the existing partitions move into their month instead of blocking its creation. Indexes defined on
+ * {@code tasks}, such as {@code (owner, completed, date)}, are created on each partition as it is attached.
+ * With sharding, every shard is maintained in turn.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "task.partitioning.enabled", havingValue = "true")
+public class TaskPartitionMaintainer {
+    static final String DEFAULT_PARTITION = "tasks_default";
+    /**
+     * Every column except generated ones such as {@code search_vector}, which cannot be inserted.
+     */
+    private static final String STORED_COLUMNS = "id, owner, title, description, date, completed, version";
+    private static final Pattern MONTH_PARTITION = Pattern.compile("tasks_(\\d{4})_(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskPartitioningProperties properties;
+    private final TaskChangeVersion taskChangeVersion;
+    private final TaskShards taskShards;
+
+    public TaskPartitionMaintainer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                   TaskPartitioningProperties properties, TaskChangeVersion taskChangeVersion,
+                                   TaskShards taskShards) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.taskChangeVersion = taskChangeVersion;
+        this.taskShards = taskShards;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${task.partitioning.maintenance-cron}")
+    public void maintain() {
+        YearMonth currentMonth = YearMonth.now();
+        for (String shard : taskShards.names()) {
+            taskShards.callOn(shard, () -> {
+                createPartitions(currentMonth, currentMonth.plusMonths(properties.getMonthsAhead()));
+                if (properties.getRetentionMonths() > 0) {
+                    dropPartitionsBefore(currentMonth.minusMonths(properties.getRetentionMonths()));
+                }
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Creates the missing partitions for {@code from} through {@code to}, both inclusive.
+     *
+     * @return names of the partitions created
+     */
+    public List<String> createPartitions(YearMonth from, YearMonth to) {
+        boolean hasDefaultPartition = exists(DEFAULT_PARTITION);
+        List<String> created = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            String partition = partitionName(month);
+            if (exists(partition)) {
+                continue;
+            }
+            YearMonth partitionMonth = month;
+            transactionTemplate.executeWithoutResult(status -> {
+                Date start = Date.valueOf(partitionMonth.atDay(1));
+                Date end = Date.valueOf(partitionMonth.plusMonths(1).atDay(1));
+                jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE tasks INCLUDING DEFAULTS INCLUDING GENERATED)");
+                if (hasDefaultPartition) {
+                    // writers into the default partition wait until the partition is attached, so no row of the
+                    // month lands there between the move and the attach, which would then fail
+                    jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN EXCLUSIVE MODE");
+                    jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION + " WHERE date >= ? AND date < ? RETURNING "
+                            + STORED_COLUMNS + ") INSERT INTO " + partition + " (" + STORED_COLUMNS + ") SELECT " + STORED_COLUMNS
+                            + " FROM moved", start, end);
+                }
+                jdbcTemplate.execute("ALTER TABLE tasks ATTACH PARTITION " + partition
+                        + " FOR VALUES FROM ('" + start + "') TO ('" + end + "')");
+            });
+            created.add(partition);
+        }
+        if (!created.isEmpty()) {
+            log.info("Created task partitions {}", created);
+        }
+        return created;
+    }
+
+    /**
+     * Drops the monthly partitions before {@code month}. Their rows go in one statement per month rather than
+     * row by row, and the counters of those days are removed with them.
+     *
+     * @return names of the partitions dropped
+     */
+    public List<String> dropPartitionsBefore(YearMonth month) {
+        List<String> dropped = new ArrayList<>();
+        for (String partition : monthPartitions()) {
+            YearMonth partitionMonth = monthOf(partition);
+            if (!partitionMonth.isBefore(month)) {
+                continue;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("ALTER TABLE tasks DETACH PARTITION " + partition);
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                jdbcTemplate.update("DELETE FROM task_daily_counts WHERE date >= ? AND date < ?",
+                        Date.valueOf(partitionMonth.atDay(1)), Date.valueOf(partitionMonth.plusMonths(1).atDay(1)));
+                taskChangeVersion.bumpAfterCommit();
+            });
+            dropped.add(partition);
+        }
+        if (!dropped.isEmpty()) {
+            log.info("Dropped task partitions {}", dropped);
+        }
+        return dropped;
+    }
+
+    List<String> monthPartitions() {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "WHERE i.inhparent = 'tasks'::regclass ORDER BY c.relname", String.class)
+                .stream()
+                .filter(name -> MONTH_PARTITION.matcher(name).matches())
+                .toList();
+    }
+
+    static String partitionName(YearMonth month) {
+        return String.format("tasks_%04d_%02d", month.getYear(), month.getMonthValue());
+    }
+
+    private static YearMonth monthOf(String partition) {
+        Matcher matcher = MONTH_PARTITION.matcher(partition);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a monthly task partition: " + partition);
+        }
+        return YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+    }
+
+    private boolean exists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+}
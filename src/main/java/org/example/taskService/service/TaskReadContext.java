@@ -0,0 +1,24 @@
+package org.example.taskService.service;
+
+/**
+ * Whether the reads of the current thread must see the primary database. Set per request for a client that has
+ * just written, so it reads its own changes even when read-only transactions otherwise go to replicas.
+ */
+public final class TaskReadContext {
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private TaskReadContext() {
+    }
+
+    public static void pinToPrimary() {
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void unpin() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.taskService.service;
+
+import org.example.taskService.config.TaskReplicaProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells whether a read may be served by a replica that has not applied the latest write yet: replicas are on,
+ * the read is not pinned to the primary, and a write went through this instance less than
+ * {@code task.replica.max-lag} ago. Such reads are neither cached nor tagged with a list ETag, since the page may
+ * predate the version it would be labelled with.
+ */
+@Component
+public class TaskReplicaLag {
+    private final boolean enabled;
+    private final long maxLagNanos;
+    private final TaskChangeVersion taskChangeVersion;
+
+    public TaskReplicaLag(TaskReplicaProperties properties, TaskChangeVersion taskChangeVersion) {
+        this.enabled = properties.isEnabled();
+        this.maxLagNanos = properties.getMaxLag().toNanos();
+        this.taskChangeVersion = taskChangeVersion;
+    }
+
+    public boolean mayReadStale() {
+        return enabled && !TaskReadContext.isPinnedToPrimary() && taskChangeVersion.nanosSinceLastChange() < maxLagNanos;
+    }
+
+    public boolean isPinnedToPrimary() {
+        return TaskReadContext.isPinnedToPrimary();
+    }
+}
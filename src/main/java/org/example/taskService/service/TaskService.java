@@ -1,31 +1,105 @@
 package org.example.taskService.service;
 
+import org.example.taskService.dto.TaskBatchItemResult;
+import org.example.taskService.dto.TaskBucket;
 import org.example.taskService.dto.TaskCreationRequest;
+import org.example.taskService.dto.TaskField;
+import org.example.taskService.dto.TaskPage;
 import org.example.taskService.dto.TaskUpdateRequest;
 import org.example.taskService.dto.TaskResponse;
+import org.example.taskService.dto.TaskStatisticsResponse;
+import org.example.taskService.dto.TaskSummaryResponse;
 
-import java.time.OffsetDateTime;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 public interface TaskService {
+    int DEFAULT_PAGE_SIZE = 50;
+
+    int MAX_PAGE_SIZE = 500;
+
+    int MAX_STATISTICS_BUCKETS = 1000;
+
     TaskResponse createTask(TaskCreationRequest taskRequest);
 
     TaskResponse updateTask(Long taskId, TaskUpdateRequest taskUpdate);
 
+    /**
+     * Applies the update only if the task is still at {@code expectedVersion}.
+     *
+     * @throws org.example.taskService.exception.TaskVersionMismatchException if the task was changed in between
+     */
+    TaskResponse updateTask(Long taskId, TaskUpdateRequest taskUpdate, long expectedVersion);
+
+    /**
+     * @throws org.example.taskService.exception.TaskNotFoundException if there is no such task
+     */
+    TaskResponse getTask(Long id);
+
     void toggleTaskCompletion(Long id);
 
     void deleteTask(Long id);
 
-    List<TaskResponse> getTasksByDateRangeAndCompletionStatus(LocalDateTime start, LocalDateTime end, boolean completed);
+    List<TaskBatchItemResult> createTasks(List<TaskCreationRequest> taskRequests);
+
+    List<TaskBatchItemResult> toggleTasksCompletion(List<Long> ids);
+
+    /**
+     * Applies toggles collected from concurrent callers in one transaction. Toggles of the same id cancel out
+     * in pairs, so only ids toggled an odd number of times are written and the others are only looked up.
+     *
+     * @return one result per element of {@code ids}, in the same order
+     */
+    List<TaskBatchItemResult> toggleTasksCompletionCoalesced(List<Long> ids);
+
+    List<TaskBatchItemResult> deleteTasks(List<Long> ids);
+
+    TaskSummaryResponse getTaskSummary();
+
+    /**
+     * Counts of completed and open tasks dated from {@code start} to {@code end}, per {@code bucket}.
+     * {@code completed} is an optional filter; with {@code includeArchived} archived tasks count as completed.
+     *
+     * @throws org.example.taskService.exception.InvalidIntervalException if {@code end} is before {@code start}
+     *                                                                     or the range spans more than
+     *                                                                     {@link #MAX_STATISTICS_BUCKETS} buckets
+     */
+    TaskStatisticsResponse getTaskStatistics(LocalDateTime start, LocalDateTime end, TaskBucket bucket, Boolean completed,
+                                             boolean includeArchived);
+
+    /**
+     * Pages ordered by {@code (date, id)}. Only the columns of {@code fields} are read, plus {@code id} and
+     * {@code date}, which the order and the cursor need; pass {@link TaskField#ALL} for whole tasks.
+     */
+    TaskPage getTasksByDateRangeAndCompletionStatus(LocalDateTime start, LocalDateTime end, boolean completed, String cursor, int limit, Set<TaskField> fields);
+
+    /**
+     * Like {@link #getTasksByDateRangeAndCompletionStatus}, but completed tasks moved to the archive are
+     * merged into the pages as well.
+     */
+    TaskPage getTasksIncludingArchived(LocalDateTime start, LocalDateTime end, boolean completed, String cursor, int limit, Set<TaskField> fields);
+
+    /**
+     * Full-text search over titles and descriptions, best matches first. Only the first {@code limit} matches
+     * are returned, so the page never has a next cursor; {@code start}, {@code end} and {@code completed} are
+     * optional filters.
+     *
+     * @throws org.example.taskService.exception.InvalidSearchQueryException if the query is blank or too long
+     */
+    TaskPage searchTasks(String query, LocalDateTime start, LocalDateTime end, Boolean completed, int limit);
 
-    List<TaskResponse> getTasksByDateAndCompletionStatus(LocalDateTime date, boolean completed);
+    TaskPage getTasksByDateAndCompletionStatus(LocalDateTime date, boolean completed, String cursor, int limit, Set<TaskField> fields);
 
-    List<TaskResponse> getTasksByWeekAndCompletionStatus(boolean completed);
+    /**
+     * The past week up to now. With {@code includeArchived}, completed tasks moved to the archive are merged in,
+     * as by {@link #getTasksIncludingArchived}; the month and upcoming variants take the flag the same way.
+     */
+    TaskPage getTasksByWeekAndCompletionStatus(boolean completed, boolean includeArchived, String cursor, int limit, Set<TaskField> fields);
 
-    List<TaskResponse> getTasksByMonthAndCompletionStatus(boolean completed);
+    TaskPage getTasksByMonthAndCompletionStatus(boolean completed, boolean includeArchived, String cursor, int limit, Set<TaskField> fields);
 
-    List<TaskResponse> getUpcomingTasksByWeekAndCompletionStatus(boolean completed);
+    TaskPage getUpcomingTasksByWeekAndCompletionStatus(boolean completed, boolean includeArchived, String cursor, int limit, Set<TaskField> fields);
 
-    List<TaskResponse> getUpcomingTasksByMonthAndCompletionStatus(boolean completed);
+    TaskPage getUpcomingTasksByMonthAndCompletionStatus(boolean completed, boolean includeArchived, String cursor, int limit, Set<TaskField> fields);
 }
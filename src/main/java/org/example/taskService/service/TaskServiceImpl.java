@@ -1,123 +1,435 @@
 package org.example.taskService.service;
 
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.example.taskService.dto.TaskBatchItemResult;
+import org.example.taskService.dto.TaskBatchItemStatus;
+import org.example.taskService.dto.TaskBucket;
+import org.example.taskService.dto.TaskBucketCounts;
+import org.example.taskService.dto.TaskChangeType;
+import org.example.taskService.dto.TaskCounts;
 import org.example.taskService.dto.TaskCreationRequest;
+import org.example.taskService.dto.TaskField;
+import org.example.taskService.dto.TaskPage;
 import org.example.taskService.dto.TaskUpdateRequest;
 import org.example.taskService.dto.TaskResponse;
+import org.example.taskService.dto.TaskStatisticsResponse;
+import org.example.taskService.dto.TaskSummaryResponse;
+import org.example.taskService.exception.InvalidIntervalException;
+import org.example.taskService.exception.InvalidSearchQueryException;
 import org.example.taskService.exception.TaskNotFoundException;
+import org.example.taskService.exception.TaskVersionMismatchException;
 import org.example.taskService.model.Task;
+import org.example.taskService.model.TaskDailyCount;
+import org.example.taskService.repository.ArchivedTaskRepository;
+import org.example.taskService.repository.TaskDailyCountRepository;
 import org.example.taskService.repository.TaskRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "task.service", histogram = true)
 @RequiredArgsConstructor
 public class TaskServiceImpl implements TaskService {
+    private static final int MAX_SEARCH_QUERY_LENGTH = 200;
+
+    private static final Comparator<TaskResponse> PAGE_ORDER =
+            Comparator.comparing(TaskResponse::getDate).thenComparing(TaskResponse::getId);
+
     private final TaskRepository taskRepository;
+    private final TaskDailyCountRepository taskDailyCountRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final TaskChangeVersion taskChangeVersion;
+    private final TaskChangeFeed taskChangeFeed;
 
     @Override
     @Transactional
     public TaskResponse createTask(TaskCreationRequest taskRequest) {
-        Task task = new Task();
-        task.setTitle(taskRequest.getTitle());
-        task.setDescription(taskRequest.getDescription());
-        task.setDate(LocalDateTime.now());
-        task.setCompleted(false);
-        Task savedTask = taskRepository.save(task);
-        return convertToTaskResponse(savedTask);
+        Task savedTask = taskRepository.save(newTask(taskRequest, LocalDateTime.now()));
+        taskDailyCountRepository.addToDate(savedTask.getOwner(), savedTask.getDate().toLocalDate(), 0, 1);
+        taskChangeVersion.bumpAfterCommit();
+        TaskResponse taskResponse = convertToTaskResponse(savedTask);
+        taskChangeFeed.publishAfterCommit(TaskChangeType.CREATED, taskResponse.getId(), taskResponse);
+        return taskResponse;
     }
 
+    /**
+     * Updates the row with a single conditional statement. The follow-up read runs in the same
+     * transaction behind the row lock taken by the update, so it always sees the new values.
+     */
     @Override
     @Transactional
     public TaskResponse updateTask(Long taskId, TaskUpdateRequest taskUpdate) {
-        return taskRepository.findById(taskId)
-                .map(task -> {
-                    task.setTitle(taskUpdate.getTitle());
-                    task.setDescription(taskUpdate.getDescription());
-                    return taskRepository.save(task);
-                })
-                .map(this::convertToTaskResponse)
-                .orElseThrow(() -> new TaskNotFoundException(taskId));
+        if (taskRepository.updateTitleAndDescription(TaskOwnerContext.current(), taskId, taskUpdate.getTitle(), taskUpdate.getDescription()) == 0) {
+            throw new TaskNotFoundException(taskId);
+        }
+        taskChangeVersion.bumpAfterCommit();
+        return publishUpdate(taskId);
+    }
+
+    @Override
+    @Transactional
+    public TaskResponse updateTask(Long taskId, TaskUpdateRequest taskUpdate, long expectedVersion) {
+        String owner = TaskOwnerContext.current();
+        if (taskRepository.updateTitleAndDescriptionAtVersion(owner, taskId, expectedVersion, taskUpdate.getTitle(), taskUpdate.getDescription()) == 0) {
+            if (taskRepository.existsByOwnerAndId(owner, taskId)) {
+                throw new TaskVersionMismatchException(taskId);
+            }
+            throw new TaskNotFoundException(taskId);
+        }
+        taskChangeVersion.bumpAfterCommit();
+        return publishUpdate(taskId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskResponse getTask(Long id) {
+        return taskRepository.findResponseById(TaskOwnerContext.current(), id).orElseThrow(() -> new TaskNotFoundException(id));
     }
 
     @Override
     @Transactional
     public void toggleTaskCompletion(Long id) {
-        Task task = taskRepository.findById(id).orElseThrow(() -> new TaskNotFoundException(id));
-        task.setCompleted(!task.isCompleted());
-        taskRepository.save(task);
+        String owner = TaskOwnerContext.current();
+        if (taskRepository.toggleCompletion(owner, id) == 0) {
+            throw new TaskNotFoundException(id);
+        }
+        taskDailyCountRepository.applyToggles(owner, List.of(id));
+        taskChangeVersion.bumpAfterCommit();
+        taskChangeFeed.publishAfterCommit(TaskChangeType.TOGGLED, id, null);
     }
 
     @Override
     @Transactional
     public void deleteTask(Long id) {
-        if (!taskRepository.existsById(id)) {
+        String owner = TaskOwnerContext.current();
+        Map<LocalDate, long[]> deletedCounts = taskRepository.lockDailyCounts(owner, List.of(id));
+        if (taskRepository.deleteTaskById(owner, id) == 0) {
             throw new TaskNotFoundException(id);
         }
-        taskRepository.deleteById(id);
+        taskDailyCountRepository.applyDeletes(owner, deletedCounts);
+        taskChangeVersion.bumpAfterCommit();
+        taskChangeFeed.publishAfterCommit(TaskChangeType.DELETED, id, null);
     }
 
+    /**
+     * Ids come from the pooled sequence, so Hibernate can group the inserts into JDBC batches
+     * of {@code hibernate.jdbc.batch_size} statements.
+     */
     @Override
-    public List<TaskResponse> getTasksByDateAndCompletionStatus(LocalDateTime date, boolean completed) {
-        return taskRepository.findByDateAndCompleted(date, completed)
+    @Transactional
+    public List<TaskBatchItemResult> createTasks(List<TaskCreationRequest> taskRequests) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> tasks = taskRequests.stream()
+                .map(taskRequest -> newTask(taskRequest, now))
+                .collect(Collectors.toList());
+        taskDailyCountRepository.addToDate(TaskOwnerContext.current(), now.toLocalDate(), 0, tasks.size());
+        taskChangeVersion.bumpAfterCommit();
+        List<TaskBatchItemResult> results = taskRepository.saveAll(tasks)
                 .stream()
-                .map(this::convertToTaskResponse)
+                .map(task -> new TaskBatchItemResult(task.getId(), TaskBatchItemStatus.CREATED, convertToTaskResponse(task)))
                 .collect(Collectors.toList());
+        results.forEach(result -> taskChangeFeed.publishAfterCommit(TaskChangeType.CREATED, result.getId(), result.getTask()));
+        return results;
     }
 
-    public List<TaskResponse> getTasksByDateRangeAndCompletionStatus(LocalDateTime start, LocalDateTime end, boolean completed) {
-        return taskRepository.findByDateBetweenAndCompleted(start, end, completed)
-                .stream()
-                .map(this::convertToTaskResponse)
+    @Override
+    @Transactional
+    public List<TaskBatchItemResult> toggleTasksCompletion(List<Long> ids) {
+        String owner = TaskOwnerContext.current();
+        int[] updateCounts = taskRepository.batchToggleCompletion(owner, ids);
+        taskDailyCountRepository.applyToggles(owner, idsToggledOddNumberOfTimes(ids));
+        taskChangeVersion.bumpAfterCommit();
+        return toBatchResults(ids, updateCounts, TaskBatchItemStatus.TOGGLED, TaskChangeType.TOGGLED);
+    }
+
+    @Override
+    @Transactional
+    public List<TaskBatchItemResult> toggleTasksCompletionCoalesced(List<Long> ids) {
+        String owner = TaskOwnerContext.current();
+        List<Long> toggledIds = idsToggledOddNumberOfTimes(ids);
+        Set<Long> existingIds = new HashSet<>();
+        if (!toggledIds.isEmpty()) {
+            int[] updateCounts = taskRepository.batchToggleCompletion(owner, toggledIds);
+            for (int i = 0; i < toggledIds.size(); i++) {
+                if (updateCounts[i] != 0) {
+                    existingIds.add(toggledIds.get(i));
+                    taskChangeFeed.publishAfterCommit(TaskChangeType.TOGGLED, toggledIds.get(i), null);
+                }
+            }
+            taskDailyCountRepository.applyToggles(owner, toggledIds);
+            taskChangeVersion.bumpAfterCommit();
+        }
+        Set<Long> toggledIdSet = new HashSet<>(toggledIds);
+        List<Long> cancelledIds = ids.stream()
+                .filter(id -> !toggledIdSet.contains(id))
+                .distinct()
+                .collect(Collectors.toList());
+        if (!cancelledIds.isEmpty()) {
+            existingIds.addAll(taskRepository.findExistingIds(owner, cancelledIds));
+        }
+        return ids.stream()
+                .map(id -> new TaskBatchItemResult(id, existingIds.contains(id) ? TaskBatchItemStatus.TOGGLED : TaskBatchItemStatus.NOT_FOUND, null))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional
+    public List<TaskBatchItemResult> deleteTasks(List<Long> ids) {
+        String owner = TaskOwnerContext.current();
+        Map<LocalDate, long[]> deletedCounts = taskRepository.lockDailyCounts(owner, new HashSet<>(ids));
+        int[] updateCounts = taskRepository.batchDelete(owner, ids);
+        taskDailyCountRepository.applyDeletes(owner, deletedCounts);
+        taskChangeVersion.bumpAfterCommit();
+        return toBatchResults(ids, updateCounts, TaskBatchItemStatus.DELETED, TaskChangeType.DELETED);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPage getTasksByDateAndCompletionStatus(LocalDateTime date, boolean completed, String cursor, int limit, Set<TaskField> fields) {
+        return findPage(date, date, completed, cursor, limit, fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPage getTasksByDateRangeAndCompletionStatus(LocalDateTime start, LocalDateTime end, boolean completed, String cursor, int limit, Set<TaskField> fields) {
+        return findPage(start, end, completed, cursor, limit, fields);
+    }
+
+    /**
+     * The archive only holds completed tasks, so it is queried only for completed pages. Both tables are
+     * read up to one row past the page and merged by {@code (date, id)}; the cursor works for both since
+     * archived tasks keep their ids.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPage getTasksIncludingArchived(LocalDateTime start, LocalDateTime end, boolean completed, String cursor, int limit, Set<TaskField> fields) {
+        return findPage(start, end, completed, cursor, limit, completed, fields);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskPage searchTasks(String query, LocalDateTime start, LocalDateTime end, Boolean completed, int limit) {
+        if (query == null || query.isBlank() || query.length() > MAX_SEARCH_QUERY_LENGTH) {
+            throw new InvalidSearchQueryException(query);
+        }
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        return new TaskPage(taskRepository.search(TaskOwnerContext.current(), query.strip(), start, end, completed, pageSize), null);
+    }
 
     @Override
-    public List<TaskResponse> getTasksByWeekAndCompletionStatus(boolean completed) {
+    @Transactional(readOnly = true)
+    public TaskPage getTasksByWeekAndCompletionStatus(boolean completed, boolean includeArchived, String cursor, int limit, Set<TaskField> fields) {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime weekAgo = now.minusWeeks(1);
-        return taskRepository.findByDateBetweenAndCompleted(weekAgo, now, completed)
-                .stream()
-                .map(this::convertToTaskResponse)
-                .collect(Collectors.toList());
+        return findPage(weekAgo, now, completed, cursor, limit, includeArchived && completed, fields);
     }
 
     @Override
-    public List<TaskResponse> getTasksByMonthAndCompletionStatus(boolean completed) {
+    @Transactional(readOnly = true)
+    public TaskPage getTasksByMonthAndCompletionStatus(boolean completed, boolean includeArchived, String cursor, int limit, Set<TaskField> fields) {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime monthAgo = now.minusMonths(1);
-        return taskRepository.findByDateBetweenAndCompleted(monthAgo, now, completed)
-                .stream()
-                .map(this::convertToTaskResponse)
-                .collect(Collectors.toList());
+        return findPage(monthAgo, now, completed, cursor, limit, includeArchived && completed, fields);
     }
 
     @Override
-    public List<TaskResponse> getUpcomingTasksByWeekAndCompletionStatus(boolean completed) {
+    @Transactional(readOnly = true)
+    public TaskPage getUpcomingTasksByWeekAndCompletionStatus(boolean completed, boolean includeArchived, String cursor, int limit, Set<TaskField> fields) {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime weekLater = now.plusWeeks(1);
-        return taskRepository.findByDateBetweenAndCompleted(now, weekLater, completed)
-                .stream()
-                .map(this::convertToTaskResponse)
-                .collect(Collectors.toList());
+        return findPage(now, weekLater, completed, cursor, limit, includeArchived && completed, fields);
     }
 
     @Override
-    public List<TaskResponse> getUpcomingTasksByMonthAndCompletionStatus(boolean completed) {
+    @Transactional(readOnly = true)
+    public TaskPage getUpcomingTasksByMonthAndCompletionStatus(boolean completed, boolean includeArchived, String cursor, int limit, Set<TaskField> fields) {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime monthLater = now.plusMonths(1);
-        return taskRepository.findByDateBetweenAndCompleted(now, monthLater, completed)
-                .stream()
-                .map(this::convertToTaskResponse)
+        return findPage(now, monthLater, completed, cursor, limit, includeArchived && completed, fields);
+    }
+
+    /**
+     * Sums the per-day counters, so the cost depends on the number of days in the widest window
+     * and not on the number of tasks. Windows are whole days, unlike the timestamp-based list reads.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TaskSummaryResponse getTaskSummary() {
+        LocalDate today = LocalDate.now();
+        LocalDate monthAgo = today.minusMonths(1);
+        LocalDate weekAgo = today.minusWeeks(1);
+        LocalDate weekLater = today.plusWeeks(1);
+        LocalDate monthLater = today.plusMonths(1);
+        List<TaskDailyCount> dailyCounts = taskDailyCountRepository.findByOwnerAndDateBetween(TaskOwnerContext.current(), monthAgo, monthLater);
+        return new TaskSummaryResponse(
+                sumCounts(dailyCounts, today, today),
+                sumCounts(dailyCounts, weekAgo, today),
+                sumCounts(dailyCounts, monthAgo, today),
+                sumCounts(dailyCounts, today, weekLater),
+                sumCounts(dailyCounts, today, monthLater));
+    }
+
+    /**
+     * Archived tasks are counted by a second grouped query and added to the buckets of the live ones; both
+     * return at most one row per bucket, so merging them costs nothing next to reading the tasks.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TaskStatisticsResponse getTaskStatistics(LocalDateTime start, LocalDateTime end, TaskBucket bucket, Boolean completed,
+                                                    boolean includeArchived) {
+        if (end.isBefore(start)) {
+            throw new InvalidIntervalException("Invalid interval: end " + end + " is before start " + start);
+        }
+        if (bucket.bucketsBetween(start, end) > MAX_STATISTICS_BUCKETS) {
+            throw new InvalidIntervalException("Interval spans more than " + MAX_STATISTICS_BUCKETS + " " + bucket.fieldName() + " buckets");
+        }
+        String owner = TaskOwnerContext.current();
+        List<TaskBucketCounts> counts = taskRepository.countByBucket(owner, bucket, start, end, completed);
+        if (!includeArchived || Boolean.FALSE.equals(completed)) {
+            return new TaskStatisticsResponse(bucket, counts);
+        }
+        Map<LocalDateTime, TaskBucketCounts> merged = new TreeMap<>();
+        for (TaskBucketCounts bucketCounts : counts) {
+            merged.put(bucketCounts.getStart(), bucketCounts);
+        }
+        for (TaskBucketCounts archived : taskRepository.countArchivedByBucket(owner, bucket, start, end)) {
+            merged.merge(archived.getStart(), archived, (live, old) -> new TaskBucketCounts(live.getStart(),
+                    live.getCompleted() + old.getCompleted(), live.getOpen() + old.getOpen()));
+        }
+        return new TaskStatisticsResponse(bucket, new ArrayList<>(merged.values()));
+    }
+
+    /**
+     * Reads one page of tasks ordered by {@code (date, id)}. One extra row is fetched to find out
+     * whether a next page exists, and the next page starts strictly after the last returned row,
+     * so every page costs the same index range scan regardless of how deep the client is.
+     * Rows are projected straight into {@link TaskResponse}, so no managed entities are created.
+     */
+    private TaskPage findPage(LocalDateTime start, LocalDateTime end, boolean completed, String cursor, int limit,
+                              Set<TaskField> fields) {
+        return findPage(start, end, completed, cursor, limit, false, fields);
+    }
+
+    private TaskPage findPage(LocalDateTime start, LocalDateTime end, boolean completed, String cursor, int limit,
+                              boolean includeArchived, Set<TaskField> fields) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        TaskCursor after = cursor == null || cursor.isEmpty() ? null : TaskCursor.decode(cursor);
+        String owner = TaskOwnerContext.current();
+        List<TaskResponse> items = findTasks(owner, start, end, completed, after, pageSize + 1, fields);
+        if (includeArchived) {
+            List<TaskResponse> archivedItems = findArchivedTasks(owner, start, end, after, pageSize + 1, fields);
+            items = Stream.concat(items.stream(), archivedItems.stream())
+                    .sorted(PAGE_ORDER)
+                    .limit(pageSize + 1)
+                    .collect(Collectors.toList());
+        }
+
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            TaskResponse last = items.get(pageSize - 1);
+            nextCursor = new TaskCursor(last.getDate(), last.getId()).encode();
+        }
+        return new TaskPage(items, nextCursor);
+    }
+
+    private List<TaskResponse> findTasks(String owner, LocalDateTime start, LocalDateTime end, boolean completed, TaskCursor after,
+                                         int limit, Set<TaskField> fields) {
+        if (!fields.containsAll(TaskField.ALL)) {
+            return taskRepository.findProjectedPage(owner, fields, start, end, completed,
+                    after == null ? null : after.date(), after == null ? null : after.id(), limit);
+        }
+        Pageable pageable = PageRequest.of(0, limit);
+        return after == null
+                ? taskRepository.findPage(owner, start, end, completed, pageable)
+                : taskRepository.findPageAfter(owner, start, end, completed, after.date(), after.id(), pageable);
+    }
+
+    private List<TaskResponse> findArchivedTasks(String owner, LocalDateTime start, LocalDateTime end, TaskCursor after, int limit,
+                                                 Set<TaskField> fields) {
+        if (!fields.containsAll(TaskField.ALL)) {
+            return taskRepository.findProjectedArchivedPage(owner, fields, start, end,
+                    after == null ? null : after.date(), after == null ? null : after.id(), limit);
+        }
+        Pageable pageable = PageRequest.of(0, limit);
+        return after == null
+                ? archivedTaskRepository.findPage(owner, start, end, pageable)
+                : archivedTaskRepository.findPageAfter(owner, start, end, after.date(), after.id(), pageable);
+    }
+
+    private TaskCounts sumCounts(List<TaskDailyCount> dailyCounts, LocalDate start, LocalDate end) {
+        TaskCounts counts = new TaskCounts();
+        for (TaskDailyCount dailyCount : dailyCounts) {
+            if (!dailyCount.getDate().isBefore(start) && !dailyCount.getDate().isAfter(end)) {
+                counts.setCompleted(counts.getCompleted() + dailyCount.getCompletedCount());
+                counts.setOpen(counts.getOpen() + dailyCount.getOpenCount());
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Counter updates read the final state of each task, so a task toggled twice in one batch
+     * must not move between buckets at all.
+     */
+    private List<Long> idsToggledOddNumberOfTimes(List<Long> ids) {
+        Map<Long, Long> toggles = ids.stream().collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        return toggles.entrySet().stream()
+                .filter(entry -> entry.getValue() % 2 == 1)
+                .map(Map.Entry::getKey)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Also publishes a change event for every id that existed.
+     */
+    private List<TaskBatchItemResult> toBatchResults(List<Long> ids, int[] updateCounts, TaskBatchItemStatus successStatus,
+                                                     TaskChangeType changeType) {
+        List<TaskBatchItemResult> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            TaskBatchItemStatus status = updateCounts[i] == 0 ? TaskBatchItemStatus.NOT_FOUND : successStatus;
+            results.add(new TaskBatchItemResult(ids.get(i), status, null));
+            if (updateCounts[i] != 0) {
+                taskChangeFeed.publishAfterCommit(changeType, ids.get(i), null);
+            }
+        }
+        return results;
+    }
+
+    private TaskResponse publishUpdate(Long taskId) {
+        TaskResponse taskResponse = taskRepository.findResponseById(TaskOwnerContext.current(), taskId)
+                .orElseThrow(() -> new TaskNotFoundException(taskId));
+        taskChangeFeed.publishAfterCommit(TaskChangeType.UPDATED, taskId, taskResponse);
+        return taskResponse;
+    }
+
+    private Task newTask(TaskCreationRequest taskRequest, LocalDateTime date) {
+        Task task = new Task();
+        task.setOwner(TaskOwnerContext.current());
+        task.setTitle(taskRequest.getTitle());
+        task.setDescription(taskRequest.getDescription());
+        task.setDate(date);
+        task.setCompleted(false);
+        return task;
+    }
+
     private TaskResponse convertToTaskResponse(Task task) {
-        return new TaskResponse(task.getId(), task.getTitle(), task.getDescription(), task.getDate(), task.isCompleted());
+        return new TaskResponse(task.getId(), task.getTitle(), task.getDescription(), task.getDate(), task.isCompleted(), task.getVersion());
     }
 }
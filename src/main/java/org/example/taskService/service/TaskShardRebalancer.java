@@ -0,0 +1,151 @@
+package org.example.taskService.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.taskService.config.TaskShardRoutingDataSource;
+import org.example.taskService.repository.TaskDailyCountRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Moves owners whose tasks are stored on another shard than the one the hash ring assigns them, which after
+ * adding a shard are about 1/N of the owners, all of them bound for the new shard.
+ * <p>
+ * An owner is moved by copying its live and archived tasks to the target shard with their ids, in chunks of
+ * {@value #CHUNK_SIZE}, recounting its counters there and only then deleting it from the source shard. Rows
+ * already on the target are skipped, so an interrupted rebalance can simply be run again. The ring routes the
+ * owner to the target as soon as the shard is configured, so until its move completes the owner sees only the
+ * tasks that already arrived; rebalance right after adding a shard.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "task.sharding.enabled", havingValue = "true")
+public class TaskShardRebalancer {
+    static final int CHUNK_SIZE = 1000;
+    private static final String TASK_COLUMNS = "id, owner, title, description, date, completed, version";
+    private static final String ARCHIVED_TASK_COLUMNS = TASK_COLUMNS + ", archived_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskShardRoutingDataSource routingDataSource;
+    private final TaskDailyCountRepository taskDailyCountRepository;
+    private final TaskChangeVersion taskChangeVersion;
+    private final ObjectProvider<CachingTaskService> cachingTaskService;
+
+    public TaskShardRebalancer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               TaskShardRoutingDataSource routingDataSource, TaskDailyCountRepository taskDailyCountRepository,
+                               TaskChangeVersion taskChangeVersion, ObjectProvider<CachingTaskService> cachingTaskService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.routingDataSource = routingDataSource;
+        this.taskDailyCountRepository = taskDailyCountRepository;
+        this.taskChangeVersion = taskChangeVersion;
+        this.cachingTaskService = cachingTaskService;
+    }
+
+    /**
+     * @return the owners stored on a shard other than their own
+     */
+    public List<Move> plan() {
+        List<Move> moves = new ArrayList<>();
+        for (String shard : routingDataSource.shards()) {
+            for (String owner : TaskShardRoutingDataSource.callOnShard(shard, this::owners)) {
+                String target = routingDataSource.shardOf(owner);
+                if (!target.equals(shard)) {
+                    moves.add(new Move(owner, shard, target));
+                }
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * @return the owners moved
+     */
+    public List<Move> rebalance() {
+        List<Move> moves = plan();
+        for (Move move : moves) {
+            move(move);
+        }
+        if (!moves.isEmpty()) {
+            cachingTaskService.ifAvailable(CachingTaskService::invalidateAll);
+            taskChangeVersion.bump();
+        }
+        return moves;
+    }
+
+    private List<String> owners() {
+        return jdbcTemplate.queryForList("SELECT owner FROM tasks UNION SELECT owner FROM tasks_archive", String.class);
+    }
+
+    private void move(Move move) {
+        long copied = copy("tasks", TASK_COLUMNS, move) + copy("tasks_archive", ARCHIVED_TASK_COLUMNS, move);
+        TaskShardRoutingDataSource.callOnShard(move.target(), () -> transactionTemplate.execute(status -> {
+            taskDailyCountRepository.recount(move.owner());
+            return null;
+        }));
+        TaskShardRoutingDataSource.callOnShard(move.source(), () -> transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM tasks_archive WHERE owner = ?", move.owner());
+            jdbcTemplate.update("DELETE FROM tasks WHERE owner = ?", move.owner());
+            jdbcTemplate.update("DELETE FROM task_daily_counts WHERE owner = ?", move.owner());
+            return null;
+        }));
+        log.info("Moved {} tasks of owner {} from shard {} to shard {}", copied, move.owner(), move.source(), move.target());
+    }
+
+    private long copy(String table, String columns, Move move) {
+        long copied = 0;
+        long afterId = Long.MIN_VALUE;
+        while (true) {
+            long after = afterId;
+            List<Map<String, Object>> rows = TaskShardRoutingDataSource.callOnShard(move.source(), () -> jdbcTemplate.queryForList(
+                    "SELECT " + columns + " FROM " + table + " WHERE owner = ? AND id > ? ORDER BY id LIMIT ?",
+                    move.owner(), after, CHUNK_SIZE));
+            if (rows.isEmpty()) {
+                return copied;
+            }
+            copied += TaskShardRoutingDataSource.callOnShard(move.target(),
+                    () -> transactionTemplate.execute(status -> insertMissing(table, columns, rows)));
+            afterId = idOf(rows.get(rows.size() - 1));
+            if (rows.size() < CHUNK_SIZE) {
+                return copied;
+            }
+        }
+    }
+
+    private int insertMissing(String table, String columns, List<Map<String, Object>> rows) {
+        Set<Long> existingIds = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM " + table + " WHERE id IN (" + placeholders(rows.size()) + ")", Long.class,
+                rows.stream().map(row -> row.get("id")).toArray()));
+        List<Object[]> missing = rows.stream()
+                .filter(row -> !existingIds.contains(idOf(row)))
+                .map(row -> row.values().toArray())
+                .toList();
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO " + table + " (" + columns + ") VALUES ("
+                    + placeholders(missing.get(0).length) + ")", missing);
+        }
+        return missing.size();
+    }
+
+    private static long idOf(Map<String, Object> row) {
+        return ((Number) row.get("id")).longValue();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    public record Move(String owner, String source, String target) {
+    }
+}
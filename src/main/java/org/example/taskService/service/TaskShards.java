@@ -0,0 +1,40 @@
+package org.example.taskService.service;
+
+import org.example.taskService.config.TaskShardRoutingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Runs maintenance work that spans owners, such as archiving and counter reconciliation, once per shard.
+ * Without {@code task.sharding.enabled} there is a single shard and the work simply runs once.
+ */
+@Component
+public class TaskShards {
+    private final TaskShardRoutingDataSource routingDataSource;
+
+    public TaskShards(ObjectProvider<TaskShardRoutingDataSource> routingDataSource) {
+        this.routingDataSource = routingDataSource.getIfAvailable();
+    }
+
+    public List<String> names() {
+        return routingDataSource != null ? routingDataSource.shards() : List.of(TaskShardRoutingDataSource.MAIN_SHARD);
+    }
+
+    /**
+     * Runs {@code action} on {@code shard}. Transactions must begin inside {@code action}.
+     */
+    public <T> T callOn(String shard, Supplier<T> action) {
+        return routingDataSource != null ? TaskShardRoutingDataSource.callOnShard(shard, action) : action.get();
+    }
+
+    public int sumOverShards(Supplier<Integer> action) {
+        int sum = 0;
+        for (String shard : names()) {
+            sum += callOn(shard, action);
+        }
+        return sum;
+    }
+}
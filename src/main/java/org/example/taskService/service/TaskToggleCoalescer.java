@@ -0,0 +1,138 @@
+package org.example.taskService.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.example.taskService.config.TaskToggleProperties;
+import org.example.taskService.dto.TaskBatchItemResult;
+import org.example.taskService.dto.TaskBatchItemStatus;
+import org.example.taskService.exception.TaskNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for {@code POST /{id}/toggle-completion}.
+ * <p>
+ * With {@code task.toggle.coalescing-enabled}, the first toggle opens a group that collects the toggles
+ * arriving within {@code task.toggle.coalescing-window}, or until {@code task.toggle.max-batch-size} is
+ * reached, and all of them are applied by one {@link TaskService#toggleTasksCompletionCoalesced} transaction.
+ * Every caller waits for that commit and then returns normally or throws {@link TaskNotFoundException} for
+ * its own id, exactly as an uncoalesced toggle would. Otherwise toggles go straight to the service.
+ * <p>
+ * Each owner has its own group, committed as that owner. A single timer thread only hands expired groups to
+ * virtual threads, one per group, so a slow commit of one owner does not hold back the others.
+ */
+@Component
+public class TaskToggleCoalescer {
+    private final TaskService taskService;
+    private final TaskToggleProperties properties;
+    private final DistributionSummary batchSizes;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("task-toggle-timer").daemon().factory());
+    private final Thread.Builder flushers = Thread.ofVirtual().name("task-toggle-flusher-", 0);
+    private final Map<String, Group> open = new HashMap<>();
+
+    public TaskToggleCoalescer(TaskService taskService, TaskToggleProperties properties, MeterRegistry meterRegistry) {
+        this.taskService = taskService;
+        this.properties = properties;
+        this.batchSizes = DistributionSummary.builder("task.toggle.batch.size").register(meterRegistry);
+    }
+
+    public void toggle(Long id) {
+        if (!properties.isCoalescingEnabled()) {
+            taskService.toggleTaskCompletion(id);
+            return;
+        }
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        Group full = join(TaskOwnerContext.current(), id, result);
+        if (full != null) {
+            flush(full);
+        }
+        try {
+            result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        List<Group> pending;
+        synchronized (this) {
+            pending = new ArrayList<>(open.values());
+            open.clear();
+        }
+        pending.forEach(this::flush);
+        timer.shutdownNow();
+    }
+
+    /**
+     * @return the group if this toggle filled it, in which case the caller commits it
+     */
+    private synchronized Group join(String owner, Long id, CompletableFuture<Void> result) {
+        Group group = open.get(owner);
+        if (group == null) {
+            group = new Group(owner);
+            open.put(owner, group);
+            Group scheduled = group;
+            timer.schedule(() -> flushers.start(() -> flushIfOpen(scheduled)),
+                    properties.getCoalescingWindow().toNanos(), TimeUnit.NANOSECONDS);
+        }
+        group.ids.add(id);
+        group.results.add(result);
+        if (group.ids.size() < properties.getMaxBatchSize()) {
+            return null;
+        }
+        open.remove(owner);
+        return group;
+    }
+
+    private void flushIfOpen(Group group) {
+        synchronized (this) {
+            if (open.get(group.owner) != group) {
+                return;
+            }
+            open.remove(group.owner);
+        }
+        flush(group);
+    }
+
+    private void flush(Group group) {
+        batchSizes.record(group.ids.size());
+        try {
+            List<TaskBatchItemResult> itemResults = TaskOwnerContext.callAs(group.owner,
+                    () -> taskService.toggleTasksCompletionCoalesced(group.ids));
+            for (int i = 0; i < itemResults.size(); i++) {
+                if (itemResults.get(i).getStatus() == TaskBatchItemStatus.NOT_FOUND) {
+                    group.results.get(i).completeExceptionally(new TaskNotFoundException(group.ids.get(i)));
+                } else {
+                    group.results.get(i).complete(null);
+                }
+            }
+        } catch (RuntimeException e) {
+            group.results.forEach(result -> result.completeExceptionally(e));
+        }
+    }
+
+    private static final class Group {
+        private final String owner;
+        private final List<Long> ids = new ArrayList<>();
+        private final List<CompletableFuture<Void>> results = new ArrayList<>();
+
+        Group(String owner) {
+            this.owner = owner;
+        }
+    }
+}
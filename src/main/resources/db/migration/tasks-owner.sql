@@ -0,0 +1,25 @@
+-- Adds task owners and keys the daily counters by owner and day (PostgreSQL 11+, where adding a column with a
+-- constant default does not rewrite the table). Existing rows belong to the owner 'default', which requests
+-- without X-Task-Owner act as, so nothing changes for existing clients. Run once before deploying the version
+-- that maps Task.owner; ddl-auto=update cannot change the primary key of task_daily_counts.
+BEGIN;
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS owner VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE IF EXISTS tasks_archive ADD COLUMN IF NOT EXISTS owner VARCHAR(64) NOT NULL DEFAULT 'default';
+
+ALTER TABLE task_daily_counts ADD COLUMN IF NOT EXISTS owner VARCHAR(64) NOT NULL DEFAULT 'default';
+ALTER TABLE task_daily_counts DROP CONSTRAINT IF EXISTS task_daily_counts_pkey;
+ALTER TABLE task_daily_counts ADD PRIMARY KEY (owner, date);
+
+-- Every read is restricted to one owner, so the owner leads the indexes.
+DROP INDEX IF EXISTS tasks_completed_date_idx;
+CREATE INDEX IF NOT EXISTS tasks_owner_completed_date_idx ON tasks (owner, completed, date);
+DROP INDEX IF EXISTS tasks_archive_date_id_idx;
+DO $$
+BEGIN
+    IF to_regclass('tasks_archive') IS NOT NULL THEN
+        CREATE INDEX IF NOT EXISTS tasks_archive_owner_date_id_idx ON tasks_archive (owner, date, id);
+    END IF;
+END $$;
+
+COMMIT;
@@ -0,0 +1,45 @@
+-- Converts tasks into a table range-partitioned by month on date (PostgreSQL 12+).
+-- Run once with the application stopped, then start it with task.partitioning.enabled=true and
+-- spring.jpa.hibernate.ddl-auto=none; TaskPartitionMaintainer creates the partitions of the coming months.
+-- Requires tasks-owner.sql to have been applied.
+BEGIN;
+
+ALTER TABLE tasks RENAME TO tasks_unpartitioned;
+
+-- A partitioned table cannot have a primary key without the partition key; ids stay unique through tasks_id_seq.
+CREATE TABLE tasks (LIKE tasks_unpartitioned INCLUDING DEFAULTS INCLUDING GENERATED) PARTITION BY RANGE (date);
+ALTER SEQUENCE tasks_id_seq OWNED BY tasks.id;
+
+-- Created on every partition, including the ones attached later.
+CREATE INDEX tasks_id_idx ON tasks (id);
+-- The old table's owner index keeps its name until the table is dropped.
+ALTER INDEX IF EXISTS tasks_owner_completed_date_idx RENAME TO tasks_unpartitioned_owner_completed_date_idx;
+CREATE INDEX tasks_owner_completed_date_idx ON tasks (owner, completed, date);
+-- Search index from tasks-search.sql, if it was applied; the old table's index is dropped along with it.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_attribute WHERE attrelid = 'tasks'::regclass AND attname = 'search_vector') THEN
+        ALTER INDEX IF EXISTS tasks_search_idx RENAME TO tasks_unpartitioned_search_idx;
+        CREATE INDEX tasks_search_idx ON tasks USING GIN (search_vector);
+    END IF;
+END $$;
+
+-- Rows without a date or outside every monthly partition.
+CREATE TABLE tasks_default PARTITION OF tasks DEFAULT;
+
+DO $$
+DECLARE
+    month DATE;
+BEGIN
+    FOR month IN SELECT DISTINCT date_trunc('month', date)::DATE FROM tasks_unpartitioned WHERE date IS NOT NULL LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF tasks FOR VALUES FROM (%L) TO (%L)',
+                       'tasks_' || to_char(month, 'YYYY_MM'), month, (month + INTERVAL '1 month')::DATE);
+    END LOOP;
+END $$;
+
+-- Generated columns such as search_vector cannot be inserted, so the stored columns are listed.
+INSERT INTO tasks (id, owner, title, description, date, completed, version)
+SELECT id, owner, title, description, date, completed, version FROM tasks_unpartitioned;
+DROP TABLE tasks_unpartitioned;
+
+COMMIT;
@@ -0,0 +1,15 @@
+-- Moves an existing database from IDENTITY ids to the pooled tasks_id_seq sequence.
+-- Hibernate refuses to start while the sequence increment differs from allocationSize (50),
+-- so run this once before deploying the version that maps Task with a sequence generator.
+
+-- Databases created by earlier versions through ddl-auto have the table named "task".
+ALTER TABLE IF EXISTS task RENAME TO tasks;
+
+ALTER TABLE tasks ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE tasks ALTER COLUMN id DROP DEFAULT;
+DROP SEQUENCE IF EXISTS tasks_id_seq;
+
+CREATE SEQUENCE tasks_id_seq INCREMENT BY 50 OWNED BY tasks.id;
+-- The pooled optimizer hands out (value - 49 .. value), so the next block starts above every existing id.
+SELECT setval('tasks_id_seq', COALESCE((SELECT MAX(id) FROM tasks), 0) + 50);
+ALTER TABLE tasks ALTER COLUMN id SET DEFAULT nextval('tasks_id_seq');
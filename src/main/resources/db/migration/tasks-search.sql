@@ -0,0 +1,9 @@
+-- Adds the full-text search vector used by GET /api/v1/tasks/search (PostgreSQL 12+).
+-- The column is generated, so every insert and update path, including COPY and the bulk JDBC statements,
+-- keeps it current. Titles weigh more than descriptions in the ranking. Adding a stored column rewrites
+-- the table, so run this once with the application stopped; the entity does not map the column.
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'B')) STORED;
+
+CREATE INDEX IF NOT EXISTS tasks_search_idx ON tasks USING GIN (search_vector);
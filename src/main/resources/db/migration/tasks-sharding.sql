@@ -0,0 +1,6 @@
+-- Gives an additional shard database its own range of task ids (PostgreSQL). Create the shard's schema like the
+-- main database's first, then run this once on every shard listed in task.sharding.shards with a number that is
+-- unique among them and greater than zero, for example: psql -v shard=1 -f tasks-sharding.sql
+-- The main database keeps the range starting at 0. Ids stay unique across shards, so moving an owner to another
+-- shard keeps the ids of its tasks.
+SELECT setval('tasks_id_seq', GREATEST((SELECT last_value FROM tasks_id_seq), :shard * 1099511627776));
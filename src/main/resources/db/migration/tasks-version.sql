@@ -0,0 +1,4 @@
+-- Adds the optimistic-lock version used for task ETags and If-Match.
+-- ddl-auto=update would add the column as NOT NULL without a default and fail on existing rows,
+-- so run this once before deploying the version that maps Task.version.
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -1,8 +1,41 @@
+CREATE SEQUENCE tasks_id_seq INCREMENT BY 50;
+
 CREATE TABLE tasks
 (
-    id          BIGSERIAL PRIMARY KEY,
+    id          BIGINT PRIMARY KEY DEFAULT nextval('tasks_id_seq'),
+    owner       VARCHAR(64)  NOT NULL DEFAULT 'default',
     title       VARCHAR(255) NOT NULL,
     description TEXT,
     date        DATE,
-    completed   BOOLEAN      NOT NULL DEFAULT false
+    completed   BOOLEAN      NOT NULL DEFAULT false,
+    version     BIGINT       NOT NULL DEFAULT 0,
+    search_vector TSVECTOR GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(description, '')), 'B')) STORED
 );
+
+CREATE INDEX tasks_owner_completed_date_idx ON tasks (owner, completed, date);
+CREATE INDEX tasks_search_idx ON tasks USING GIN (search_vector);
+
+CREATE TABLE task_daily_counts
+(
+    owner           VARCHAR(64) NOT NULL DEFAULT 'default',
+    date            DATE        NOT NULL,
+    completed_count BIGINT      NOT NULL DEFAULT 0,
+    open_count      BIGINT      NOT NULL DEFAULT 0,
+    PRIMARY KEY (owner, date)
+);
+
+CREATE TABLE tasks_archive
+(
+    id          BIGINT PRIMARY KEY,
+    owner       VARCHAR(64) NOT NULL DEFAULT 'default',
+    title       VARCHAR(255),
+    description TEXT,
+    date        DATE,
+    completed   BOOLEAN   NOT NULL,
+    version     BIGINT    NOT NULL,
+    archived_at TIMESTAMP
+);
+
+CREATE INDEX tasks_archive_owner_date_id_idx ON tasks_archive (owner, date, id);
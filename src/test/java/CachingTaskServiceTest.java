@@ -0,0 +1,155 @@
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.taskService.config.TaskCacheProperties;
+import org.example.taskService.config.TaskReplicaProperties;
+import org.example.taskService.dto.TaskBatchItemResult;
+import org.example.taskService.dto.TaskBatchItemStatus;
+import org.example.taskService.dto.TaskCreationRequest;
+import org.example.taskService.dto.TaskField;
+import org.example.taskService.dto.TaskPage;
+import org.example.taskService.dto.TaskResponse;
+import org.example.taskService.repository.TaskRepository;
+import org.example.taskService.service.CachingTaskService;
+import org.example.taskService.service.TaskChangeVersion;
+import org.example.taskService.service.TaskReplicaLag;
+import org.example.taskService.service.TaskOwnerContext;
+import org.example.taskService.service.TaskServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.argThat;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingTaskServiceTest {
+
+    @Mock
+    private TaskServiceImpl delegate;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CachingTaskService taskService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        TaskChangeVersion taskChangeVersion = new TaskChangeVersion(new TaskCacheProperties());
+        taskService = new CachingTaskService(delegate, taskRepository, taskChangeVersion,
+                new TaskReplicaLag(new TaskReplicaProperties(), taskChangeVersion), new TaskCacheProperties(), meterRegistry);
+        when(delegate.getTasksByDateRangeAndCompletionStatus(any(LocalDateTime.class), any(LocalDateTime.class), eq(false), isNull(), anyInt(), eq(TaskField.ALL)))
+                .thenReturn(new TaskPage(Collections.emptyList(), null));
+    }
+
+    @Test
+    void repeatedWeekReadsHitTheCache() {
+        taskService.getTasksByWeekAndCompletionStatus(false, false, null, 50, TaskField.ALL);
+        taskService.getTasksByWeekAndCompletionStatus(false, false, null, 50, TaskField.ALL);
+
+        verify(delegate, times(1)).getTasksByDateRangeAndCompletionStatus(any(LocalDateTime.class), any(LocalDateTime.class), eq(false), isNull(), eq(50), eq(TaskField.ALL));
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "tasks.intervals").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "tasks.intervals").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void createInsideWindowInvalidatesEntry() {
+        when(delegate.createTask(any(TaskCreationRequest.class)))
+                .thenReturn(new TaskResponse(1L, "Title", "Description", LocalDateTime.now().minusDays(1), false, 0L));
+
+        taskService.getTasksByWeekAndCompletionStatus(false, false, null, 50, TaskField.ALL);
+        taskService.createTask(new TaskCreationRequest("Title", "Description"));
+        taskService.getTasksByWeekAndCompletionStatus(false, false, null, 50, TaskField.ALL);
+
+        verify(delegate, times(2)).getTasksByDateRangeAndCompletionStatus(any(LocalDateTime.class), any(LocalDateTime.class), eq(false), isNull(), eq(50), eq(TaskField.ALL));
+    }
+
+    @Test
+    void batchCreateInsideWindowInvalidatesEntry() {
+        LocalDateTime now = LocalDateTime.now();
+        when(delegate.createTasks(any())).thenReturn(List.of(
+                new TaskBatchItemResult(1L, TaskBatchItemStatus.CREATED, new TaskResponse(1L, "First", "Description", now, false, 0L)),
+                new TaskBatchItemResult(2L, TaskBatchItemStatus.CREATED, new TaskResponse(2L, "Second", "Description", now, false, 0L))));
+
+        taskService.getTasksByWeekAndCompletionStatus(false, false, null, 50, TaskField.ALL);
+        taskService.createTasks(List.of(new TaskCreationRequest("First", "Description"), new TaskCreationRequest("Second", "Description")));
+        taskService.getTasksByWeekAndCompletionStatus(false, false, null, 50, TaskField.ALL);
+
+        verify(delegate, times(2)).getTasksByDateRangeAndCompletionStatus(any(LocalDateTime.class), any(LocalDateTime.class), eq(false), isNull(), eq(50), eq(TaskField.ALL));
+    }
+
+    @Test
+    void toggleOutsideWindowKeepsEntry() {
+        when(taskRepository.findDateById(TaskOwnerContext.DEFAULT_OWNER, 1L)).thenReturn(Optional.of(LocalDateTime.now().minusYears(1)));
+
+        taskService.getTasksByWeekAndCompletionStatus(false, false, null, 50, TaskField.ALL);
+        taskService.toggleTaskCompletion(1L);
+        taskService.getTasksByWeekAndCompletionStatus(false, false, null, 50, TaskField.ALL);
+
+        verify(delegate).toggleTaskCompletion(1L);
+        verify(delegate, times(1)).getTasksByDateRangeAndCompletionStatus(any(LocalDateTime.class), any(LocalDateTime.class), eq(false), isNull(), eq(50), eq(TaskField.ALL));
+    }
+
+    @Test
+    void toggleOfCachedTaskInvalidatesEntryWithoutLookup() {
+        TaskResponse cachedTask = new TaskResponse(1L, "Title", "Description", LocalDateTime.now().minusDays(1), false, 0L);
+        when(delegate.getTasksByDateRangeAndCompletionStatus(any(LocalDateTime.class), any(LocalDateTime.class), eq(false), isNull(), anyInt(), eq(TaskField.ALL)))
+                .thenReturn(new TaskPage(List.of(cachedTask), null));
+
+        taskService.getTasksByWeekAndCompletionStatus(false, false, null, 50, TaskField.ALL);
+        taskService.toggleTaskCompletion(1L);
+        taskService.getTasksByWeekAndCompletionStatus(false, false, null, 50, TaskField.ALL);
+
+        verify(taskRepository, times(0)).findDateById(TaskOwnerContext.DEFAULT_OWNER, 1L);
+        verify(delegate, times(2)).getTasksByDateRangeAndCompletionStatus(any(LocalDateTime.class), any(LocalDateTime.class), eq(false), isNull(), eq(50), eq(TaskField.ALL));
+    }
+
+    @Test
+    void coalescedToggleOutsideWindowKeepsEntry() {
+        when(taskRepository.findDatesByIds(eq(TaskOwnerContext.DEFAULT_OWNER), any()))
+                .thenReturn(List.of(LocalDateTime.now().minusYears(1)));
+        when(delegate.toggleTasksCompletionCoalesced(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                new TaskBatchItemResult(1L, TaskBatchItemStatus.TOGGLED, null),
+                new TaskBatchItemResult(2L, TaskBatchItemStatus.TOGGLED, null),
+                new TaskBatchItemResult(3L, TaskBatchItemStatus.NOT_FOUND, null)));
+
+        taskService.getTasksByWeekAndCompletionStatus(false, false, null, 50, TaskField.ALL);
+        taskService.toggleTasksCompletionCoalesced(List.of(1L, 2L, 3L));
+        taskService.getTasksByWeekAndCompletionStatus(false, false, null, 50, TaskField.ALL);
+
+        verify(taskRepository, times(1)).findDatesByIds(eq(TaskOwnerContext.DEFAULT_OWNER), argThat(ids -> ids.size() == 2 && !ids.contains(3L)));
+        verify(taskRepository, never()).findDateById(any(), any());
+        verify(delegate, times(1)).getTasksByDateRangeAndCompletionStatus(any(LocalDateTime.class), any(LocalDateTime.class), eq(false), isNull(), eq(50), eq(TaskField.ALL));
+    }
+
+    @Test
+    void coalescedToggleOfCachedTaskInvalidatesEntry() {
+        TaskResponse cachedTask = new TaskResponse(1L, "Title", "Description", LocalDateTime.now().minusDays(1), false, 0L);
+        when(delegate.getTasksByDateRangeAndCompletionStatus(any(LocalDateTime.class), any(LocalDateTime.class), eq(false), isNull(), anyInt(), eq(TaskField.ALL)))
+                .thenReturn(new TaskPage(List.of(cachedTask), null));
+        when(delegate.toggleTasksCompletionCoalesced(List.of(1L))).thenReturn(List.of(
+                new TaskBatchItemResult(1L, TaskBatchItemStatus.TOGGLED, null)));
+
+        taskService.getTasksByWeekAndCompletionStatus(false, false, null, 50, TaskField.ALL);
+        taskService.toggleTasksCompletionCoalesced(List.of(1L));
+        taskService.getTasksByWeekAndCompletionStatus(false, false, null, 50, TaskField.ALL);
+
+        verify(taskRepository, never()).findDatesByIds(any(), any());
+        verify(delegate, times(2)).getTasksByDateRangeAndCompletionStatus(any(LocalDateTime.class), any(LocalDateTime.class), eq(false), isNull(), eq(50), eq(TaskField.ALL));
+    }
+}
@@ -0,0 +1,125 @@
+import org.example.taskService.ApplicationRunner;
+import org.example.taskService.model.Task;
+import org.example.taskService.repository.TaskRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares throughput and p99 latency of the platform and virtual execution modes.
+ * Runs only with {@code mvn test -Pload-test}. By default it uses an in-memory H2 database;
+ * pass {@code -Dload.datasource.url=...} (plus username and password) to run against PostgreSQL.
+ */
+@Tag("load")
+class ExecutionModeLoadTest {
+    private static final int TASKS = Integer.getInteger("load.tasks", 2_000);
+    private static final int CLIENTS = Integer.getInteger("load.clients", 400);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("load.requestsPerClient", 25);
+
+    @Test
+    void compareExecutionModes() throws Exception {
+        LoadResult platform = run("platform");
+        LoadResult virtual = run("virtual");
+
+        System.out.printf("%-10s %12s %10s %10s %8s%n", "mode", "requests/s", "p50 ms", "p99 ms", "errors");
+        for (LoadResult result : List.of(platform, virtual)) {
+            System.out.printf("%-10s %12.1f %10.2f %10.2f %8d%n",
+                    result.mode(), result.throughput(), result.p50Millis(), result.p99Millis(), result.errors());
+        }
+        assertEquals(0, platform.errors());
+        assertEquals(0, virtual.errors());
+    }
+
+    private LoadResult run(String mode) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ApplicationRunner.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + System.getProperty("load.datasource.url", "jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1"),
+                "--spring.datasource.username=" + System.getProperty("load.datasource.username", "sa"),
+                "--spring.datasource.password=" + System.getProperty("load.datasource.password", ""),
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.sql.init.mode=never",
+                "--spring.datasource.hikari.maximum-pool-size=10",
+                "--server.tomcat.threads.max=50",
+                "--task.cache.enabled=false",
+                "--task.admission.enabled=false",
+                "--task.execution.mode=" + mode)) {
+            seed(context.getBean(TaskRepository.class));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return drive(mode, URI.create("http://localhost:" + port + "/api/v1/tasks/filtered?interval=week&completed=false&limit=50"));
+        }
+    }
+
+    private void seed(TaskRepository taskRepository) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            Task task = new Task();
+            task.setTitle("Load Task " + i);
+            task.setDescription("Seeded for the execution mode load test.");
+            task.setDate(now.minusMinutes(i));
+            tasks.add(task);
+        }
+        taskRepository.saveAll(tasks);
+    }
+
+    private LoadResult drive(String mode, URI uri) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        long started = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                futures.add(clients.submit(() -> {
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        long requestStarted = System.nanoTime();
+                        try {
+                            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[next.getAndIncrement()] = System.nanoTime() - requestStarted;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+
+        Arrays.sort(latencies);
+        return new LoadResult(mode,
+                latencies.length / (elapsed / 1e9),
+                latencies[latencies.length / 2] / 1e6,
+                latencies[(int) (latencies.length * 0.99)] / 1e6,
+                errors.get());
+    }
+
+    private record LoadResult(String mode, double throughput, double p50Millis, double p99Millis, int errors) {
+    }
+}
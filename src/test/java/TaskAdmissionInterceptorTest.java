@@ -0,0 +1,120 @@
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.taskService.config.TaskAdmissionProperties;
+import org.example.taskService.controller.TaskAdmissionInterceptor;
+import org.example.taskService.exception.TaskOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskAdmissionInterceptorTest {
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TaskAdmissionInterceptor interceptor;
+
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        TaskAdmissionProperties properties = new TaskAdmissionProperties();
+        properties.setRetryAfter(Duration.ofSeconds(2));
+        properties.setLimits(Map.of(
+                "month", new TaskAdmissionProperties.Limit(1, 1, Duration.ofSeconds(5)),
+                "week", new TaskAdmissionProperties.Limit(1, 1, Duration.ofMillis(50))));
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new TaskAdmissionInterceptor(properties, meterRegistry);
+        callers = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void testUnlimitedRequestsPassThrough() {
+        MockHttpServletRequest today = filtered("today");
+        MockHttpServletRequest write = new MockHttpServletRequest("POST", "/api/v1/tasks/filtered");
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(interceptor.preHandle(today, response, null));
+            assertTrue(interceptor.preHandle(write, response, null));
+        }
+    }
+
+    @Test
+    void testQueuedRequestIsAdmittedWhenSlotIsReleased() throws Exception {
+        MockHttpServletRequest first = filtered("month");
+        interceptor.preHandle(first, response, null);
+
+        Future<Boolean> queued = callers.submit(() -> interceptor.preHandle(filtered("month"), response, null));
+        awaitGauge("task.admission.queued", "month", 1);
+        assertEquals(1, gauge("task.admission.active", "month"));
+
+        interceptor.afterCompletion(first, response, null, null);
+
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        assertEquals(0, gauge("task.admission.queued", "month"));
+        assertEquals(1, gauge("task.admission.active", "month"));
+    }
+
+    @Test
+    void testRequestBeyondQueueIsRejectedAtOnce() throws Exception {
+        interceptor.preHandle(filtered("month"), response, null);
+        callers.submit(() -> interceptor.preHandle(filtered("month"), response, null));
+        awaitGauge("task.admission.queued", "month", 1);
+
+        TaskOverloadedException e = assertThrows(TaskOverloadedException.class,
+                () -> interceptor.preHandle(filtered("month"), response, null));
+
+        assertEquals(Duration.ofSeconds(2), e.getRetryAfter());
+        assertEquals(1, rejected("month", "queue_full"));
+    }
+
+    @Test
+    void testRequestIsRejectedWhenQueueTimeoutExpires() {
+        interceptor.preHandle(filtered("week"), response, null);
+
+        assertThrows(TaskOverloadedException.class, () -> interceptor.preHandle(filtered("week"), response, null));
+
+        assertEquals(1, rejected("week", "timeout"));
+        assertEquals(0, rejected("week", "queue_full"));
+    }
+
+    private MockHttpServletRequest filtered(String interval) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks/filtered");
+        request.setParameter("interval", interval);
+        return request;
+    }
+
+    private double gauge(String name, String route) {
+        return meterRegistry.get(name).tag("route", route).gauge().value();
+    }
+
+    private double rejected(String route, String reason) {
+        return meterRegistry.get("task.admission.rejected").tag("route", route).tag("reason", reason).counter().count();
+    }
+
+    private void awaitGauge(String name, String route, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (gauge(name, route) != expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, gauge(name, route));
+    }
+}
@@ -1,34 +1,64 @@
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.example.taskService.ApplicationRunner;
+import org.example.taskService.controller.TaskAdmissionInterceptor;
+import org.example.taskService.dto.TaskBatchItemResult;
+import org.example.taskService.dto.TaskBatchItemStatus;
+import org.example.taskService.model.ArchivedTask;
 import org.example.taskService.model.Task;
+import org.example.taskService.model.TaskDailyCount;
+import org.example.taskService.repository.ArchivedTaskRepository;
+import org.example.taskService.repository.TaskDailyCountRepository;
 import org.example.taskService.repository.TaskRepository;
+import org.example.taskService.service.TaskArchiver;
+import org.example.taskService.service.TaskCounterReconciler;
+import org.example.taskService.service.TaskOwnerContext;
+import org.example.taskService.service.TaskService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
-@SpringBootTest(classes = ApplicationRunner.class)
+@SpringBootTest(classes = ApplicationRunner.class, properties = {"task.cache.enabled=false", "task.archive.enabled=true"})
 @AutoConfigureMockMvc
 class TaskControllerIntegrationTest {
 
@@ -38,9 +68,32 @@ class TaskControllerIntegrationTest {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private TaskDailyCountRepository taskDailyCountRepository;
+
+    @Autowired
+    private TaskCounterReconciler taskCounterReconciler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Autowired
+    private TaskArchiver taskArchiver;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskAdmissionInterceptor taskAdmissionInterceptor;
+
     @BeforeEach
     public void setup() {
         taskRepository.deleteAll();
+        taskDailyCountRepository.deleteAll();
+        archivedTaskRepository.deleteAll();
     }
 
     @Test
@@ -60,6 +113,70 @@ class TaskControllerIntegrationTest {
                 .andExpect(jsonPath("$.description").value("Test Task"));
     }
 
+    @Test
+    public void testListNegotiatesBinaryFormats() throws Exception {
+        Task task = new Task();
+        task.setTitle("Binary Task");
+        task.setDescription("Served as CBOR and Smile.");
+        task.setDate(LocalDateTime.now());
+        taskRepository.save(task);
+
+        mockMvc.perform(get("/api/v1/tasks/filtered").param("interval", "today").param("completed", "false"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().stringValues("Vary", hasItem("Accept")));
+
+        for (ObjectMapper mapper : List.of(new ObjectMapper(new CBORFactory()), new ObjectMapper(new SmileFactory()))) {
+            String mediaType = mapper.getFactory() instanceof CBORFactory ? "application/cbor" : "application/x-jackson-smile";
+            MvcResult result = mockMvc.perform(get("/api/v1/tasks/filtered")
+                            .param("interval", "today")
+                            .param("completed", "false")
+                            .accept(mediaType))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(mediaType))
+                    .andReturn();
+
+            JsonNode page = mapper.readTree(result.getResponse().getContentAsByteArray());
+            assertEquals("Binary Task", page.get("items").get(0).get("title").asText());
+            assertTrue(page.get("items").get(0).get("date").asText().startsWith(task.getDate().toLocalDate().toString()));
+        }
+    }
+
+    @Test
+    public void testSparseFieldsAndSingleTaskGet() throws Exception {
+        Task task = new Task();
+        task.setTitle("Sparse Task");
+        task.setDescription("Loaded on demand.");
+        task.setDate(LocalDateTime.now());
+        task = taskRepository.save(task);
+
+        mockMvc.perform(get("/api/v1/tasks/filtered")
+                        .param("interval", "today")
+                        .param("completed", "false")
+                        .param("fields", "id,title,date,completed"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(task.getId()))
+                .andExpect(jsonPath("$.items[0].title").value("Sparse Task"))
+                .andExpect(jsonPath("$.items[0].completed").value(false))
+                .andExpect(jsonPath("$.items[0].description").doesNotExist())
+                .andExpect(jsonPath("$.items[0].version").doesNotExist());
+        mockMvc.perform(get("/api/v1/tasks/filtered")
+                        .param("interval", "today")
+                        .param("completed", "false")
+                        .param("fields", "title,owner"))
+                .andExpect(status().isBadRequest());
+
+        String etag = mockMvc.perform(get("/api/v1/tasks/" + task.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("Loaded on demand."))
+                .andExpect(header().string("ETag", "\"" + task.getVersion() + "\""))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/v1/tasks/" + task.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/tasks/" + (task.getId() + 1000)))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     public void testGetTasksByDate() throws Exception {
         LocalDateTime testDate = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
@@ -75,8 +192,8 @@ class TaskControllerIntegrationTest {
                         .param("date", formattedDate)
                         .param("completed", "false"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[*].title", hasItem("Test Task 1")))
-                .andExpect(jsonPath("$[*].description", hasItem("This is a test task.")));
+                .andExpect(jsonPath("$.items[*].title", hasItem("Test Task 1")))
+                .andExpect(jsonPath("$.items[*].description", hasItem("This is a test task.")));
     }
 
     @Test
@@ -92,8 +209,8 @@ class TaskControllerIntegrationTest {
                         .param("interval", "today")
                         .param("completed", "false"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[*].title", hasItem("Today's Task")))
-                .andExpect(jsonPath("$[*].description", hasItem("Task for today.")));
+                .andExpect(jsonPath("$.items[*].title", hasItem("Today's Task")))
+                .andExpect(jsonPath("$.items[*].description", hasItem("Task for today.")));
     }
 
     @Test
@@ -109,8 +226,8 @@ class TaskControllerIntegrationTest {
                         .param("interval", "week")
                         .param("completed", "false"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[*].title", hasItem("This Week's Task")))
-                .andExpect(jsonPath("$[*].description", hasItem("Task for this week.")));
+                .andExpect(jsonPath("$.items[*].title", hasItem("This Week's Task")))
+                .andExpect(jsonPath("$.items[*].description", hasItem("Task for this week.")));
     }
 
     @Test
@@ -126,8 +243,52 @@ class TaskControllerIntegrationTest {
                         .param("interval", "month")
                         .param("completed", "false"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[*].title", hasItem("This Month's Task")))
-                .andExpect(jsonPath("$[*].description", hasItem("Task for this month.")));
+                .andExpect(jsonPath("$.items[*].title", hasItem("This Month's Task")))
+                .andExpect(jsonPath("$.items[*].description", hasItem("Task for this month.")));
+    }
+
+    @Test
+    public void testGetTasksForThisWeekIsPaginated() throws Exception {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 1; i <= 3; i++) {
+            Task task = new Task();
+            task.setTitle("Paged Task " + i);
+            task.setDescription("Paged task.");
+            task.setDate(now.minusHours(4 - i));
+            task.setCompleted(false);
+            taskRepository.save(task);
+        }
+
+        MvcResult firstPage = mockMvc.perform(get("/api/v1/tasks/filtered")
+                        .param("interval", "week")
+                        .param("completed", "false")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].title").value("Paged Task 1"))
+                .andExpect(jsonPath("$.items[1].title").value("Paged Task 2"))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+                .andReturn();
+        String cursor = JsonPath.read(firstPage.getResponse().getContentAsString(), "$.nextCursor");
+
+        mockMvc.perform(get("/api/v1/tasks/filtered")
+                        .param("interval", "week")
+                        .param("completed", "false")
+                        .param("limit", "2")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("Paged Task 3"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    public void testGetTasksWithInvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks/filtered")
+                        .param("interval", "week")
+                        .param("completed", "false")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -186,4 +347,612 @@ class TaskControllerIntegrationTest {
         Optional<Task> deletedTask = taskRepository.findById(savedTask.getId());
         assertFalse(deletedTask.isPresent());
     }
+
+    @Test
+    public void testToggleMissingTask() throws Exception {
+        mockMvc.perform(post("/api/v1/tasks/" + Long.MAX_VALUE + "/toggle-completion"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testDeleteMissingTask() throws Exception {
+        mockMvc.perform(delete("/api/v1/tasks/" + Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testBatchCreateTasks() throws Exception {
+        String jsonRequest = """
+                {
+                    "tasks": [
+                        {"title": "Batch Task 1", "description": "First"},
+                        {"title": "Batch Task 2", "description": "Second"}
+                    ]
+                }
+                """;
+
+        mockMvc.perform(post("/api/v1/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonRequest))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].task.title").value("Batch Task 1"))
+                .andExpect(jsonPath("$[1].task.title").value("Batch Task 2"));
+
+        assertEquals(2, taskRepository.count());
+    }
+
+    @Test
+    public void testBatchCreateTasksRejectsInvalidItem() throws Exception {
+        String jsonRequest = """
+                {
+                    "tasks": [
+                        {"title": "Batch Task", "description": ""}
+                    ]
+                }
+                """;
+
+        mockMvc.perform(post("/api/v1/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonRequest))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testBatchToggleAndDeleteTasks() throws Exception {
+        Task task = new Task();
+        task.setTitle("Batch Toggle");
+        task.setDescription("Description");
+        task.setDate(LocalDateTime.now());
+        task.setCompleted(false);
+        Task savedTask = taskRepository.save(task);
+        String jsonRequest = "{\"ids\": [" + savedTask.getId() + ", " + Long.MAX_VALUE + "]}";
+
+        mockMvc.perform(post("/api/v1/tasks/batch/toggle-completion")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonRequest))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("TOGGLED"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"));
+        assertTrue(taskRepository.findById(savedTask.getId()).orElseThrow().isCompleted());
+
+        mockMvc.perform(post("/api/v1/tasks/batch/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonRequest))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("DELETED"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"));
+        assertFalse(taskRepository.existsById(savedTask.getId()));
+    }
+
+    @Test
+    public void testCoalescedTogglesCancelOutInPairs() {
+        Task cancelled = new Task();
+        cancelled.setTitle("Cancelled Toggle");
+        cancelled.setDescription("Toggled twice.");
+        cancelled.setDate(LocalDateTime.now());
+        cancelled = taskRepository.save(cancelled);
+        Task toggled = new Task();
+        toggled.setTitle("Applied Toggle");
+        toggled.setDescription("Toggled once.");
+        toggled.setDate(LocalDateTime.now());
+        toggled = taskRepository.save(toggled);
+        long missingId = toggled.getId() + 1000;
+
+        List<TaskBatchItemResult> results = taskService.toggleTasksCompletionCoalesced(
+                List.of(cancelled.getId(), toggled.getId(), cancelled.getId(), missingId));
+
+        assertEquals(List.of(TaskBatchItemStatus.TOGGLED, TaskBatchItemStatus.TOGGLED, TaskBatchItemStatus.TOGGLED, TaskBatchItemStatus.NOT_FOUND),
+                results.stream().map(TaskBatchItemResult::getStatus).toList());
+        Task cancelledAfter = taskRepository.findById(cancelled.getId()).orElseThrow();
+        assertFalse(cancelledAfter.isCompleted());
+        assertEquals(cancelled.getVersion(), cancelledAfter.getVersion());
+        assertTrue(taskRepository.findById(toggled.getId()).orElseThrow().isCompleted());
+    }
+
+    @Test
+    public void testSummaryFollowsWrites() throws Exception {
+        String jsonRequest = """
+                {
+                    "tasks": [
+                        {"title": "Summary Task 1", "description": "First"},
+                        {"title": "Summary Task 2", "description": "Second"}
+                    ]
+                }
+                """;
+        mockMvc.perform(post("/api/v1/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonRequest))
+                .andExpect(status().isOk());
+        Long toggledId = taskRepository.findAll().get(0).getId();
+        Long deletedId = taskRepository.findAll().get(1).getId();
+
+        mockMvc.perform(post("/api/v1/tasks/" + toggledId + "/toggle-completion"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/v1/tasks/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.today.completed").value(1))
+                .andExpect(jsonPath("$.today.open").value(1))
+                .andExpect(jsonPath("$.month.completed").value(1))
+                .andExpect(jsonPath("$.upcomingWeek.open").value(1));
+
+        mockMvc.perform(delete("/api/v1/tasks/" + deletedId))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/v1/tasks/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.today.completed").value(1))
+                .andExpect(jsonPath("$.today.open").value(0));
+
+        mockMvc.perform(post("/api/v1/tasks/batch/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [" + toggledId + ", " + toggledId + ", " + deletedId + "]}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/tasks/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.today.completed").value(0))
+                .andExpect(jsonPath("$.today.open").value(0));
+        assertEquals(0, taskCounterReconciler.reconcile());
+    }
+
+    @Test
+    public void testBackfillCountsTasksSavedBeforeTheCounters() throws Exception {
+        Task task = new Task();
+        task.setTitle("Pre-counter Task");
+        task.setDescription("Saved before the counters existed.");
+        task.setDate(LocalDateTime.now());
+        taskRepository.save(task);
+        Task undated = new Task();
+        undated.setTitle("Undated Task");
+        undated.setDescription("Has no day to count.");
+        taskRepository.save(undated);
+
+        assertEquals(1, taskCounterReconciler.backfill());
+        assertEquals(0, taskCounterReconciler.backfill());
+        mockMvc.perform(get("/api/v1/tasks/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.today.completed").value(0))
+                .andExpect(jsonPath("$.today.open").value(1));
+    }
+
+    @Test
+    public void testReconcileFixesDriftedCounters() throws Exception {
+        Task task = new Task();
+        task.setTitle("Uncounted Task");
+        task.setDescription("Saved without the service.");
+        task.setDate(LocalDateTime.now());
+        task.setCompleted(true);
+        taskRepository.save(task);
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        taskDailyCountRepository.save(new TaskDailyCount(Task.DEFAULT_OWNER, yesterday, 2, 3));
+
+        assertEquals(2, taskCounterReconciler.reconcile());
+        mockMvc.perform(get("/api/v1/tasks/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.today.completed").value(1))
+                .andExpect(jsonPath("$.today.open").value(0));
+        TaskDailyCount staleCount = taskDailyCountRepository
+                .findById(new TaskDailyCount.Key(Task.DEFAULT_OWNER, yesterday)).orElseThrow();
+        assertEquals(0, staleCount.getCompletedCount());
+        assertEquals(0, staleCount.getOpenCount());
+        assertEquals(0, taskCounterReconciler.reconcile());
+    }
+
+    @Test
+    public void testOwnersSeeOnlyTheirOwnTasks() throws Exception {
+        String body = mockMvc.perform(post("/api/v1/tasks")
+                        .header("X-Task-Owner", "alice")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Alice Task\", \"description\": \"Private.\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem("X-Task-Owner")))
+                .andReturn().getResponse().getContentAsString();
+        long id = ((Number) JsonPath.read(body, "$.id")).longValue();
+
+        mockMvc.perform(get("/api/v1/tasks/" + id).header("X-Task-Owner", "alice"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/tasks/" + id).header("X-Task-Owner", "bob"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/tasks/" + id))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/v1/tasks/" + id + "/toggle-completion").header("X-Task-Owner", "bob"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/v1/tasks/filtered").header("X-Task-Owner", "bob")
+                        .param("interval", "today").param("completed", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(0)));
+        mockMvc.perform(get("/api/v1/tasks/filtered").header("X-Task-Owner", "alice")
+                        .param("interval", "today").param("completed", "false"))
+                .andExpect(jsonPath("$.items[0].title").value("Alice Task"));
+        mockMvc.perform(get("/api/v1/tasks/summary").header("X-Task-Owner", "bob"))
+                .andExpect(jsonPath("$.today.open").value(0));
+        mockMvc.perform(get("/api/v1/tasks/summary").header("X-Task-Owner", "alice"))
+                .andExpect(jsonPath("$.today.open").value(1));
+    }
+
+    @Test
+    public void testInvalidOwnerIsRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks/summary").header("X-Task-Owner", "not an owner"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid task owner: not an owner"));
+    }
+
+    @Test
+    public void testStatisticsCountsTasksPerBucket() throws Exception {
+        saveTask("Monday Task", LocalDateTime.of(2024, 1, 15, 9, 0), true);
+        saveTask("Wednesday Task", LocalDateTime.of(2024, 1, 17, 10, 30), false);
+        saveTask("Sunday Task", LocalDateTime.of(2024, 1, 21, 23, 0), false);
+        saveTask("Next Monday Task", LocalDateTime.of(2024, 1, 22, 8, 0), true);
+        ArchivedTask archived = new ArchivedTask();
+        archived.setId(1_000_000L);
+        archived.setOwner(TaskOwnerContext.DEFAULT_OWNER);
+        archived.setTitle("Archived Task");
+        archived.setDate(LocalDateTime.of(2024, 1, 16, 12, 0));
+        archived.setCompleted(true);
+        archivedTaskRepository.save(archived);
+
+        mockMvc.perform(get("/api/v1/tasks/statistics")
+                        .param("start", "2024-01-01T00:00:00").param("end", "2024-01-31T23:59:59").param("bucket", "week"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bucket").value("WEEK"))
+                .andExpect(jsonPath("$.buckets", hasSize(2)))
+                .andExpect(jsonPath("$.buckets[0].start").value("2024-01-15T00:00:00"))
+                .andExpect(jsonPath("$.buckets[0].completed").value(1))
+                .andExpect(jsonPath("$.buckets[0].open").value(2))
+                .andExpect(jsonPath("$.buckets[1].start").value("2024-01-22T00:00:00"))
+                .andExpect(jsonPath("$.buckets[1].completed").value(1));
+        mockMvc.perform(get("/api/v1/tasks/statistics")
+                        .param("start", "2024-01-01T00:00:00").param("end", "2024-01-31T23:59:59")
+                        .param("bucket", "day").param("completed", "true").param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.buckets[*].start").value(contains("2024-01-15T00:00:00", "2024-01-16T00:00:00", "2024-01-22T00:00:00")))
+                .andExpect(jsonPath("$.buckets[*].open").value(contains(0, 0, 0)));
+        mockMvc.perform(get("/api/v1/tasks/statistics").header("X-Task-Owner", "bob")
+                        .param("start", "2024-01-01T00:00:00").param("end", "2024-01-31T23:59:59"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.buckets", hasSize(0)));
+    }
+
+    @Test
+    public void testStatisticsRejectsInvalidBuckets() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks/statistics")
+                        .param("start", "2024-01-01T00:00:00").param("end", "2024-01-31T00:00:00").param("bucket", "year"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid bucket value: year"));
+        mockMvc.perform(get("/api/v1/tasks/statistics")
+                        .param("start", "2020-01-01T00:00:00").param("end", "2024-01-01T00:00:00").param("bucket", "hour"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testExportTasksAsNdjson() throws Exception {
+        Task openTask = new Task();
+        openTask.setTitle("Open Task");
+        openTask.setDescription("Exported.");
+        openTask.setDate(LocalDateTime.now().minusDays(1));
+        openTask.setCompleted(false);
+        taskRepository.save(openTask);
+        Task completedTask = new Task();
+        completedTask.setTitle("Completed Task");
+        completedTask.setDescription("Filtered out.");
+        completedTask.setDate(LocalDateTime.now());
+        completedTask.setCompleted(true);
+        taskRepository.save(completedTask);
+
+        String body = mockMvc.perform(get("/api/v1/tasks/export")
+                        .param("completed", "false"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(1, lines.length);
+        assertEquals("Open Task", JsonPath.read(lines[0], "$.title"));
+    }
+
+    @Test
+    public void testExportTasksAsCsv() throws Exception {
+        Task task = new Task();
+        task.setTitle("Task, with comma");
+        task.setDescription("Says \"hi\"");
+        task.setDate(LocalDateTime.of(2023, 10, 10, 12, 0));
+        task.setCompleted(true);
+        Task savedTask = taskRepository.save(task);
+
+        String body = mockMvc.perform(get("/api/v1/tasks/export")
+                        .param("format", "csv")
+                        .param("start", "2023-10-01T00:00:00")
+                        .param("end", "2023-10-31T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals("id,title,description,date,completed\n"
+                + savedTask.getId() + ",\"Task, with comma\",\"Says \"\"hi\"\"\",2023-10-10T12:00,true\n", body);
+    }
+
+    @Test
+    public void testExportTasksWithInvalidFormat() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks/export")
+                        .param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testImportTasksAsNdjson() throws Exception {
+        String body = """
+                {"title": "Imported Task", "description": "Open.", "date": "2023-10-10T12:00:00"}
+                {"id": 42, "title": "Completed Import", "description": "Done.", "date": "2023-10-10T15:00:00", "completed": true}
+                {"title": "", "description": "No title."}
+                {"title": "%s", "description": "Title too long for the column."}
+                not json
+                """.formatted("x".repeat(256));
+
+        mockMvc.perform(post("/api/v1/tasks/import")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.rejections[0].row").value(3))
+                .andExpect(jsonPath("$.rejections[0].message").value("Title is mandatory"))
+                .andExpect(jsonPath("$.rejections[1].row").value(4))
+                .andExpect(jsonPath("$.rejections[1].message").value("Title must be at most 255 characters"))
+                .andExpect(jsonPath("$.rejections[2].row").value(5));
+
+        assertEquals(2, taskRepository.count());
+        assertEquals(0, taskCounterReconciler.reconcile());
+    }
+
+    @Test
+    public void testImportTasksAsCsv() throws Exception {
+        String body = "id,title,description,date,completed\n"
+                + "7,\"Task, with comma\",\"Says \"\"hi\"\"\nover two lines\",2023-10-10T12:00,true\n"
+                + "8,Bad Date,Rejected.,yesterday,false\n";
+
+        mockMvc.perform(post("/api/v1/tasks/import")
+                        .param("format", "csv")
+                        .contentType("text/csv")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.rejections[0].message").value("Invalid date: yesterday"));
+
+        Task imported = taskRepository.findAll().get(0);
+        assertEquals("Task, with comma", imported.getTitle());
+        assertEquals("Says \"hi\"\nover two lines", imported.getDescription());
+        assertEquals(LocalDateTime.of(2023, 10, 10, 12, 0), imported.getDate());
+        assertTrue(imported.isCompleted());
+    }
+
+    @Test
+    public void testFilteredRequestIsTimedPerLayer() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks/filtered")
+                        .param("interval", "week")
+                        .param("direction", "future")
+                        .param("completed", "false"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/tasks/filtered")
+                        .param("interval", "year")
+                        .param("completed", "false"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(1, meterRegistry.get("http.server.requests")
+                .tag("interval", "week").tag("direction", "future").timer().count());
+        assertEquals(1, meterRegistry.get("http.server.requests")
+                .tag("interval", "other").tag("direction", "none").timer().count());
+        assertTrue(meterRegistry.get("task.service")
+                .tag("method", "getUpcomingTasksByWeekAndCompletionStatus").timer().count() > 0);
+        assertTrue(meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "TaskRepository").tag("method", "findPage").timer().count() > 0);
+        assertTrue(meterRegistry.get("task.http.serialization")
+                .tag("type", "TaskPage").timer().count() > 0);
+    }
+
+    @Test
+    public void testUnchangedListIsNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/tasks/filtered")
+                        .param("interval", "today")
+                        .param("completed", "false"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/tasks/filtered")
+                        .param("interval", "today")
+                        .param("completed", "false")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/api/v1/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"New Task\", \"description\": \"Changes the list.\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/v1/tasks/filtered")
+                        .param("interval", "today")
+                        .param("completed", "false")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("New Task"));
+    }
+
+    @Test
+    public void testUpdateTaskWithIfMatch() throws Exception {
+        String etag = mockMvc.perform(post("/api/v1/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Task\", \"description\": \"Version 0\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader("ETag");
+        Long taskId = taskRepository.findAll().get(0).getId();
+        String update = "{\"title\": \"Task\", \"description\": \"Version 1\"}";
+
+        mockMvc.perform(patch("/api/v1/tasks/" + taskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("If-Match", etag)
+                        .content(update))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.version").value(1));
+        mockMvc.perform(patch("/api/v1/tasks/" + taskId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("If-Match", etag)
+                        .content(update))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    public void testArchiveMovesOldCompletedTasks() throws Exception {
+        String body = """
+                {"title": "Old Task", "description": "Done long ago.", "date": "2023-10-10T12:00:00", "completed": true}
+                {"title": "Old Open Task", "description": "Still open.", "date": "2023-10-10T15:00:00"}
+                """;
+        mockMvc.perform(post("/api/v1/tasks/import")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isOk());
+
+        assertEquals(1, taskArchiver.archive());
+        assertEquals(1, taskRepository.count());
+        assertEquals(1, archivedTaskRepository.count());
+        assertEquals(0, taskCounterReconciler.reconcile());
+
+        mockMvc.perform(get("/api/v1/tasks")
+                        .param("date", "2023-10-10T12:00:00")
+                        .param("completed", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty());
+        mockMvc.perform(get("/api/v1/tasks")
+                        .param("date", "2023-10-10T12:00:00")
+                        .param("completed", "true")
+                        .param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("Old Task"));
+    }
+
+    @Test
+    public void testSearchTasks() throws Exception {
+        String body = """
+                {"title": "Buy milk", "description": "On the way home.", "date": "2023-10-10T12:00:00"}
+                {"title": "Groceries", "description": "Milk, bread and eggs.", "date": "2023-10-09T12:00:00"}
+                {"title": "Call the bank", "description": "About the card.", "date": "2023-10-08T12:00:00", "completed": true}
+                """;
+        mockMvc.perform(post("/api/v1/tasks/import")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/tasks/search").param("q", "MILK"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].title").value("Buy milk"))
+                .andExpect(jsonPath("$.items[1].title").value("Groceries"));
+        mockMvc.perform(get("/api/v1/tasks/search")
+                        .param("q", "milk bread")
+                        .param("completed", "false")
+                        .param("start", "2023-10-09T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("Groceries"));
+        mockMvc.perform(get("/api/v1/tasks/search")
+                        .param("q", "bank")
+                        .param("completed", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty());
+        mockMvc.perform(get("/api/v1/tasks/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testChangeFeedStreamsCommittedChanges() throws Exception {
+        MvcResult stream = mockMvc.perform(get("/api/v1/tasks/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(post("/api/v1/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Pushed Task\", \"description\": \"Sent to subscribers.\"}"))
+                .andExpect(status().isCreated());
+        Long taskId = taskRepository.findAll().get(0).getId();
+        mockMvc.perform(post("/api/v1/tasks/" + (taskId + 1000) + "/toggle-completion"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/v1/tasks/" + taskId))
+                .andExpect(status().isNoContent());
+
+        String events = awaitEvents(stream, "event:deleted");
+        assertTrue(events.contains("event:created"), events);
+        assertTrue(events.contains("\"title\":\"Pushed Task\""), events);
+        assertFalse(events.contains("event:toggled"), events);
+    }
+
+    @Test
+    public void testChangeFeedResumesFromLastEventId() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/v1/tasks/changes")).andReturn();
+        mockMvc.perform(post("/api/v1/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Seen Task\", \"description\": \"Before the disconnect.\"}"))
+                .andExpect(status().isCreated());
+        String seen = awaitEvents(first, "Seen Task");
+        String lastEventId = seen.substring(seen.lastIndexOf("id:") + 3, seen.indexOf('\n', seen.lastIndexOf("id:")));
+        mockMvc.perform(post("/api/v1/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Missed Task\", \"description\": \"After the disconnect.\"}"))
+                .andExpect(status().isCreated());
+
+        MvcResult resumed = mockMvc.perform(get("/api/v1/tasks/changes").header("Last-Event-ID", lastEventId)).andReturn();
+        String replayed = awaitEvents(resumed, "Missed Task");
+        assertFalse(replayed.contains("Seen Task"), replayed);
+
+        MvcResult unknown = mockMvc.perform(get("/api/v1/tasks/changes").header("Last-Event-ID", "other-instance-7")).andReturn();
+        awaitEvents(unknown, "event:resync");
+    }
+
+    @Test
+    public void testSaturatedMonthReadsAreShedWithRetryAfter() throws Exception {
+        List<MockHttpServletRequest> inFlight = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/tasks/filtered");
+            request.setParameter("interval", "month");
+            taskAdmissionInterceptor.preHandle(request, new MockHttpServletResponse(), null);
+            inFlight.add(request);
+        }
+        try {
+            mockMvc.perform(get("/api/v1/tasks/filtered").param("interval", "month").param("completed", "false"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.message").value("Too many concurrent month requests, retry later"));
+            mockMvc.perform(get("/api/v1/tasks/filtered").param("interval", "week").param("completed", "false"))
+                    .andExpect(status().isOk());
+            mockMvc.perform(post("/api/v1/tasks")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"title\": \"Write Task\", \"description\": \"Never queued.\"}"))
+                    .andExpect(status().isCreated());
+        } finally {
+            inFlight.forEach(request -> taskAdmissionInterceptor.afterCompletion(request, new MockHttpServletResponse(), null, null));
+        }
+
+        mockMvc.perform(get("/api/v1/tasks/filtered").param("interval", "month").param("completed", "false"))
+                .andExpect(status().isOk());
+        assertTrue(meterRegistry.get("task.admission.rejected").tag("route", "month").tag("reason", "timeout")
+                .counter().count() >= 1);
+    }
+
+    private void saveTask(String title, LocalDateTime date, boolean completed) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDescription("Counted per bucket.");
+        task.setDate(date);
+        task.setCompleted(completed);
+        taskRepository.save(task);
+    }
+
+    private String awaitEvents(MvcResult stream, String expected) throws Exception {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        String content = stream.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            content = stream.getResponse().getContentAsString();
+        }
+        assertTrue(content.contains(expected), content);
+        return content;
+    }
 }
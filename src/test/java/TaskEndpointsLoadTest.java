@@ -0,0 +1,268 @@
+import org.example.taskService.ApplicationRunner;
+import org.example.taskService.model.Task;
+import org.example.taskService.repository.TaskRepository;
+import org.example.taskService.service.TaskDataFormat;
+import org.example.taskService.service.TaskImporter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives a mix of {@code /filtered} reads, creates, toggles and deletes at a fixed arrival rate and fails
+ * when throughput, error rate or p50/p99/p999 latency regress past {@code load-test-thresholds.properties}.
+ * <p>
+ * Requests are scheduled open-loop: latency is measured from the moment a request was due, not from when it
+ * was sent, so a stalled server shows up in the tail instead of silently lowering the offered load.
+ * Runs only with {@code mvn test -Pload-test}. By default it uses an in-memory H2 database in PostgreSQL mode;
+ * pass {@code -Dload.datasource.url=...} (plus username and password) to run against PostgreSQL. Rate, duration
+ * and seed size are set with {@code -Dload.rate}, {@code -Dload.durationSeconds} and {@code -Dload.tasks};
+ * {@code -Dload.thresholds=<file>} replaces the stored thresholds.
+ */
+@Tag("load")
+class TaskEndpointsLoadTest {
+    private static final int TASKS = Integer.getInteger("load.tasks", 10_000);
+    private static final int RATE = Integer.getInteger("load.rate", 100);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmupSeconds", 10);
+    private static final int DURATION_SECONDS = Integer.getInteger("load.durationSeconds", 30);
+    private static final String[] INTERVALS = {"today", "week", "month"};
+    private static final String[] DIRECTIONS = {"past", "future"};
+
+    @Test
+    void endpointMixStaysWithinThresholds() throws Exception {
+        Properties thresholds = loadThresholds();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ApplicationRunner.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + System.getProperty("load.datasource.url",
+                        "jdbc:h2:mem:load-mix;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1"),
+                "--spring.datasource.username=" + System.getProperty("load.datasource.username", "sa"),
+                "--spring.datasource.password=" + System.getProperty("load.datasource.password", ""),
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.sql.init.mode=never")) {
+            seed(context.getBean(TaskImporter.class));
+            List<Long> ids = context.getBean(TaskRepository.class).findAll().stream().map(Task::getId).toList();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            Mix mix = new Mix("http://localhost:" + port + "/api/v1/tasks", ids);
+
+            drive(mix, WARMUP_SECONDS);
+            LoadResult result = drive(mix, DURATION_SECONDS);
+            result.print();
+
+            double minThroughput = RATE * Double.parseDouble(thresholds.getProperty("throughput.min-ratio"));
+            double maxErrorRate = Double.parseDouble(thresholds.getProperty("error-rate.max"));
+            assertAll(
+                    () -> assertTrue(result.throughput() >= minThroughput,
+                            "throughput " + result.throughput() + " req/s below " + minThroughput),
+                    () -> assertTrue(result.errorRate() <= maxErrorRate,
+                            "error rate " + result.errorRate() + " above " + maxErrorRate),
+                    () -> assertLatency(result, thresholds, "p50", 0.5),
+                    () -> assertLatency(result, thresholds, "p99", 0.99),
+                    () -> assertLatency(result, thresholds, "p999", 0.999));
+        }
+    }
+
+    private void assertLatency(LoadResult result, Properties thresholds, String name, double quantile) {
+        double max = Double.parseDouble(thresholds.getProperty("latency." + name + ".max-ms"));
+        double actual = result.percentileMillis(null, quantile);
+        assertTrue(actual <= max, name + " latency " + actual + " ms above " + max + " ms");
+    }
+
+    private Properties loadThresholds() throws IOException {
+        Properties thresholds = new Properties();
+        String file = System.getProperty("load.thresholds");
+        try (InputStream in = file != null
+                ? Files.newInputStream(Path.of(file))
+                : getClass().getResourceAsStream("/load-test-thresholds.properties")) {
+            thresholds.load(in);
+        }
+        return thresholds;
+    }
+
+    private void seed(TaskImporter taskImporter) throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < TASKS; i++) {
+            LocalDateTime date = now.minusDays(31).plusMinutes(i * (62L * 24 * 60 / TASKS));
+            ndjson.append("{\"title\":\"Load Task ").append(i)
+                    .append("\",\"description\":\"Seeded for the endpoint load test.\",\"date\":\"").append(date)
+                    .append("\",\"completed\":").append(i % 2 == 0).append("}\n");
+        }
+        taskImporter.importTasks(TaskDataFormat.NDJSON,
+                new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private LoadResult drive(Mix mix, int seconds) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        int requests = RATE * seconds;
+        long interval = 1_000_000_000L / RATE;
+        Operation[] operations = new Operation[requests];
+        long[] latencies = new long[requests];
+        boolean[] failed = new boolean[requests];
+
+        long started = System.nanoTime();
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                long due = started + i * interval;
+                LockSupport.parkNanos(due - System.nanoTime());
+                int index = i;
+                senders.submit(() -> {
+                    Operation operation = mix.next();
+                    operations[index] = operation;
+                    try {
+                        HttpResponse<Void> response = client.send(mix.request(operation), HttpResponse.BodyHandlers.discarding());
+                        failed[index] = response.statusCode() != operation.expectedStatus;
+                    } catch (Exception e) {
+                        failed[index] = true;
+                    }
+                    latencies[index] = System.nanoTime() - due;
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        return new LoadResult(operations, latencies, failed, requests / (elapsed / 1e9));
+    }
+
+    private enum Operation {
+        READ(200), CREATE(201), TOGGLE(204), DELETE(204);
+
+        private final int expectedStatus;
+
+        Operation(int expectedStatus) {
+            this.expectedStatus = expectedStatus;
+        }
+    }
+
+    /**
+     * 70% reads over all interval and direction combinations, 15% creates, 10% toggles and 5% deletes.
+     * Toggles use the first half of the seeded ids and deletes consume the second half, so every delete
+     * hits an existing task.
+     */
+    private static class Mix {
+        private final String baseUri;
+        private final List<Long> toggleIds;
+        private final List<Long> deleteIds;
+        private final AtomicInteger nextDelete = new AtomicInteger();
+
+        Mix(String baseUri, List<Long> ids) {
+            this.baseUri = baseUri;
+            this.toggleIds = ids.subList(0, ids.size() / 2);
+            this.deleteIds = ids.subList(ids.size() / 2, ids.size());
+        }
+
+        Operation next() {
+            int roll = ThreadLocalRandom.current().nextInt(100);
+            if (roll < 70) {
+                return Operation.READ;
+            } else if (roll < 85) {
+                return Operation.CREATE;
+            } else if (roll < 95) {
+                return Operation.TOGGLE;
+            }
+            return Operation.DELETE;
+        }
+
+        HttpRequest request(Operation operation) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            switch (operation) {
+                case CREATE:
+                    return HttpRequest.newBuilder(URI.create(baseUri))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"title\":\"Created Task\",\"description\":\"Created by the load test.\"}"))
+                            .build();
+                case TOGGLE:
+                    long toggleId = toggleIds.get(random.nextInt(toggleIds.size()));
+                    return HttpRequest.newBuilder(URI.create(baseUri + "/" + toggleId + "/toggle-completion"))
+                            .POST(HttpRequest.BodyPublishers.noBody())
+                            .build();
+                case DELETE:
+                    long deleteId = deleteIds.get(nextDelete.getAndIncrement() % deleteIds.size());
+                    return HttpRequest.newBuilder(URI.create(baseUri + "/" + deleteId)).DELETE().build();
+                default:
+                    return HttpRequest.newBuilder(URI.create(baseUri + "/filtered"
+                                    + "?interval=" + INTERVALS[random.nextInt(INTERVALS.length)]
+                                    + "&direction=" + DIRECTIONS[random.nextInt(DIRECTIONS.length)]
+                                    + "&completed=" + random.nextBoolean()
+                                    + "&limit=50"))
+                            .GET()
+                            .build();
+            }
+        }
+    }
+
+    private record LoadResult(Operation[] operations, long[] latencies, boolean[] failed, double throughput) {
+
+        double errorRate() {
+            int errors = 0;
+            for (boolean requestFailed : failed) {
+                if (requestFailed) {
+                    errors++;
+                }
+            }
+            return (double) errors / failed.length;
+        }
+
+        /**
+         * Latency quantile of one operation, or of all requests when {@code operation} is null.
+         */
+        double percentileMillis(Operation operation, double quantile) {
+            long[] selected = new long[latencies.length];
+            int count = 0;
+            for (int i = 0; i < latencies.length; i++) {
+                if (operation == null || operations[i] == operation) {
+                    selected[count++] = latencies[i];
+                }
+            }
+            if (count == 0) {
+                return 0;
+            }
+            Arrays.sort(selected, 0, count);
+            return selected[(int) Math.min(count - 1, Math.ceil(quantile * count) - 1)] / 1e6;
+        }
+
+        void print() {
+            Map<Operation, Integer> counts = new EnumMap<>(Operation.class);
+            for (Operation operation : operations) {
+                counts.merge(operation, 1, Integer::sum);
+            }
+            System.out.printf("throughput %.1f req/s, error rate %.4f%n", throughput, errorRate());
+            System.out.printf("%-10s %8s %10s %10s %10s%n", "operation", "requests", "p50 ms", "p99 ms", "p999 ms");
+            List<Operation> rows = new ArrayList<>(counts.keySet());
+            rows.add(null);
+            for (Operation operation : rows) {
+                System.out.printf("%-10s %8d %10.2f %10.2f %10.2f%n",
+                        operation == null ? "all" : operation.name().toLowerCase(),
+                        operation == null ? operations.length : counts.get(operation),
+                        percentileMillis(operation, 0.5), percentileMillis(operation, 0.99), percentileMillis(operation, 0.999));
+            }
+        }
+    }
+}
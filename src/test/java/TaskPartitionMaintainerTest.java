@@ -0,0 +1,137 @@
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.example.taskService.config.TaskCacheProperties;
+import org.example.taskService.config.TaskPartitioningProperties;
+import org.example.taskService.service.TaskChangeVersion;
+import org.example.taskService.service.TaskPartitionMaintainer;
+import org.example.taskService.service.TaskShards;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+import java.util.List;
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs the partitioning migration and {@link TaskPartitionMaintainer} against an embedded PostgreSQL.
+ * Runs only with {@code mvn test -Ppostgres-test}; PostgreSQL refuses to start as root, so run it as a regular user.
+ */
+@Tag("postgres")
+class TaskPartitionMaintainerTest {
+    private EmbeddedPostgres postgres;
+    private JdbcTemplate jdbcTemplate;
+    private TaskPartitionMaintainer maintainer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        DataSource dataSource = postgres.getPostgresDatabase();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE SEQUENCE tasks_id_seq INCREMENT BY 50");
+        jdbcTemplate.execute("CREATE TABLE tasks (id BIGINT PRIMARY KEY DEFAULT nextval('tasks_id_seq'), "
+                + "title VARCHAR(255) NOT NULL, description TEXT, date TIMESTAMP(6), "
+                + "completed BOOLEAN NOT NULL DEFAULT false, version BIGINT NOT NULL DEFAULT 0)");
+        jdbcTemplate.execute("ALTER SEQUENCE tasks_id_seq OWNED BY tasks.id");
+        jdbcTemplate.execute("CREATE TABLE task_daily_counts (date DATE PRIMARY KEY, "
+                + "completed_count BIGINT NOT NULL DEFAULT 0, open_count BIGINT NOT NULL DEFAULT 0)");
+        insertTask("2023-09-15 10:00", false);
+        insertTask("2023-10-05 10:00", true);
+        insertTask("2023-10-20 10:00", false);
+
+        runScript("/db/migration/tasks-owner.sql");
+        runScript("/db/migration/tasks-search.sql");
+        runScript("/db/migration/tasks-partitioning.sql");
+
+        TaskPartitioningProperties properties = new TaskPartitioningProperties();
+        properties.setEnabled(true);
+        maintainer = new TaskPartitionMaintainer(jdbcTemplate, new DataSourceTransactionManager(dataSource),
+                properties, new TaskChangeVersion(new TaskCacheProperties()), mock(TaskShards.class));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void migrationPartitionsExistingRowsByMonth() {
+        assertEquals(1, count("tasks_2023_09"));
+        assertEquals(2, count("tasks_2023_10"));
+        assertEquals(0, count("tasks_default"));
+        assertEquals(3, count("tasks"));
+    }
+
+    @Test
+    void createPartitionsMovesRowsOutOfTheDefaultPartition() {
+        insertTask("2024-01-15 10:00", false);
+        assertEquals(1, count("tasks_default"));
+
+        List<String> created = maintainer.createPartitions(YearMonth.of(2023, 10), YearMonth.of(2024, 1));
+
+        assertEquals(List.of("tasks_2023_11", "tasks_2023_12", "tasks_2024_01"), created);
+        assertEquals(0, count("tasks_default"));
+        assertEquals(1, count("tasks_2024_01"));
+        assertTrue(jdbcTemplate.queryForList("SELECT indexdef FROM pg_indexes WHERE tablename = 'tasks_2024_01'", String.class)
+                .stream().anyMatch(index -> index.contains("(owner, completed, date)")));
+        assertEquals(List.of(), maintainer.createPartitions(YearMonth.of(2023, 10), YearMonth.of(2024, 1)));
+    }
+
+    @Test
+    void partitionsKeepTheGeneratedSearchVector() {
+        maintainer.createPartitions(YearMonth.of(2024, 1), YearMonth.of(2024, 1));
+        insertTask("2024-01-15 10:00", false);
+
+        assertEquals(4, (long) jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM tasks WHERE search_vector @@ websearch_to_tsquery('simple', 'partitioned')", Long.class));
+    }
+
+    @Test
+    void rangeQueryOnlyScansItsPartition() {
+        maintainer.createPartitions(YearMonth.of(2023, 11), YearMonth.of(2023, 12));
+
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM tasks WHERE date BETWEEN ? AND ? AND completed = ?", String.class,
+                java.sql.Timestamp.valueOf("2023-10-01 00:00:00"), java.sql.Timestamp.valueOf("2023-10-31 00:00:00"), false));
+
+        assertTrue(plan.contains("tasks_2023_10"), plan);
+        assertFalse(plan.contains("tasks_2023_09"), plan);
+        assertFalse(plan.contains("tasks_2023_11"), plan);
+        assertFalse(plan.contains("tasks_default"), plan);
+    }
+
+    @Test
+    void dropPartitionsBeforeRemovesWholeMonthsAndTheirCounters() {
+        jdbcTemplate.update("INSERT INTO task_daily_counts VALUES ('2023-09-15', 0, 1), ('2023-10-05', 1, 0)");
+
+        assertEquals(List.of("tasks_2023_09"), maintainer.dropPartitionsBefore(YearMonth.of(2023, 10)));
+
+        assertEquals(2, count("tasks"));
+        assertEquals(1, count("task_daily_counts"));
+        assertFalse(Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass('tasks_2023_09') IS NOT NULL", Boolean.class)));
+    }
+
+    private void insertTask(String date, boolean completed) {
+        jdbcTemplate.update("INSERT INTO tasks (title, description, date, completed) VALUES ('Task', 'Partitioned', ?::timestamp, ?)",
+                date, completed);
+    }
+
+    private void runScript(String path) throws Exception {
+        try (InputStream script = getClass().getResourceAsStream(path)) {
+            jdbcTemplate.execute(new String(script.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Long.class);
+    }
+}
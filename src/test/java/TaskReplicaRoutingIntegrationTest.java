@@ -0,0 +1,113 @@
+import jakarta.servlet.http.Cookie;
+import org.example.taskService.ApplicationRunner;
+import org.example.taskService.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the application against two embedded databases, a primary and a replica that never receives the
+ * primary's writes, so every response shows which of them served it.
+ */
+@SpringBootTest(classes = ApplicationRunner.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "task.replica.enabled=true",
+        "task.replica.replicas[0].url=" + TaskReplicaRoutingIntegrationTest.REPLICA_URL,
+        "task.replica.read-your-writes-window=1m",
+        "task.replica.max-lag=1m"})
+@AutoConfigureMockMvc
+class TaskReplicaRoutingIntegrationTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private DataSource taskPrimaryDataSource;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    /**
+     * Copies the schema Hibernate created on the primary and seeds the replica with a task of its own.
+     */
+    @BeforeEach
+    public void setup() {
+        taskRepository.deleteAll();
+        replica.execute("DROP ALL OBJECTS");
+        new JdbcTemplate(taskPrimaryDataSource).queryForList("SCRIPT NODATA", String.class).forEach(replica::execute);
+        replica.update("INSERT INTO tasks (id, title, description, date, completed, version) VALUES (?, ?, ?, ?, FALSE, 0)",
+                1_000_000L, "Replica Task", "Only on the replica.", LocalDateTime.now().minusHours(1));
+    }
+
+    @Test
+    public void testReadsGoToReplicaUntilClientWrites() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks/filtered").param("interval", "week").param("completed", "false"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Replica Task")));
+
+        MvcResult write = mockMvc.perform(post("/api/v1/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Primary Task\", \"description\": \"Only on the primary.\"}"))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Cookie primaryUntil = write.getResponse().getCookie("task-primary-until");
+        assertNotNull(primaryUntil);
+
+        mockMvc.perform(get("/api/v1/tasks/filtered").param("interval", "month").param("completed", "false"))
+                .andExpect(content().string(containsString("Replica Task")))
+                .andExpect(content().string(not(containsString("Primary Task"))));
+        // the month page just cached from the replica must not hide the client's own write
+        mockMvc.perform(get("/api/v1/tasks/filtered").param("interval", "month").param("completed", "false")
+                        .cookie(primaryUntil))
+                .andExpect(content().string(containsString("Primary Task")))
+                .andExpect(content().string(not(containsString("Replica Task"))));
+
+        mockMvc.perform(get("/api/v1/tasks/filtered").param("interval", "week").param("completed", "false")
+                        .cookie(new Cookie("task-primary-until", "1")))
+                .andExpect(content().string(containsString("Replica Task")));
+    }
+
+    @Test
+    public void testPagesReadDuringReplicaLagAreNeitherCachedNorTagged() throws Exception {
+        mockMvc.perform(post("/api/v1/tasks")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Primary Task\", \"description\": \"Not replicated yet.\"}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/tasks/filtered").param("interval", "week").param("completed", "false"))
+                .andExpect(content().string(not(containsString("Primary Task"))))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+        // the replica catches up; the page read before must not have been kept
+        replica.update("INSERT INTO tasks (id, title, description, date, completed, version) VALUES (?, ?, ?, ?, FALSE, 0)",
+                2_000_000L, "Primary Task", "Replicated.", LocalDateTime.now());
+        mockMvc.perform(get("/api/v1/tasks/filtered").param("interval", "week").param("completed", "false"))
+                .andExpect(content().string(containsString("Primary Task")));
+    }
+}
@@ -1,20 +1,26 @@
 import org.example.taskService.ApplicationRunner;
+import org.example.taskService.dto.TaskField;
+import org.example.taskService.dto.TaskResponse;
 import org.example.taskService.model.Task;
 import org.example.taskService.repository.TaskRepository;
+import org.example.taskService.service.TaskOwnerContext;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(classes = ApplicationRunner.class)
 class TaskRepositoryTest {
+    private static final String OWNER = TaskOwnerContext.DEFAULT_OWNER;
 
     @Autowired
     private TaskRepository taskRepository;
@@ -24,6 +30,7 @@ class TaskRepositoryTest {
     @BeforeEach
     public void setUp() {
         testTask = new Task();
+        testTask.setOwner(OWNER);
         testTask.setTitle("Test Task");
         testTask.setDescription("Test Description");
         testTask.setDate(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS));
@@ -32,8 +39,8 @@ class TaskRepositoryTest {
     }
 
     @Test
-    public void whenFindByDateAndCompleted() {
-        List<Task> foundTasks = taskRepository.findByDateAndCompleted(testTask.getDate().truncatedTo(ChronoUnit.SECONDS), false);
+    public void whenFindByOwnerAndDateAndCompleted() {
+        List<Task> foundTasks = taskRepository.findByOwnerAndDateAndCompleted(OWNER, testTask.getDate().truncatedTo(ChronoUnit.SECONDS), false);
         assertThat(foundTasks).isNotEmpty();
         assertThat(foundTasks.get(0).getTitle()).isEqualTo(testTask.getTitle());
         assertThat(foundTasks.get(0).getDescription()).isEqualTo(testTask.getDescription());
@@ -41,11 +48,11 @@ class TaskRepositoryTest {
     }
 
     @Test
-    public void whenFindByDateBetweenAndCompleted() {
+    public void whenFindByOwnerAndDateBetweenAndCompleted() {
         LocalDateTime startDate = LocalDateTime.now().minusDays(1);
         LocalDateTime endDate = LocalDateTime.now().plusDays(1);
 
-        List<Task> foundTasks = taskRepository.findByDateBetweenAndCompleted(startDate, endDate, false);
+        List<Task> foundTasks = taskRepository.findByOwnerAndDateBetweenAndCompleted(OWNER, startDate, endDate, false);
         assertThat(foundTasks).isNotEmpty();
         Task expectedTask = foundTasks.stream()
                 .filter(task -> task.getTitle().equals(testTask.getTitle())
@@ -57,4 +64,40 @@ class TaskRepositoryTest {
 
         assertThat(expectedTask).isNotNull();
     }
+
+    @Test
+    public void whenFindPageProjectsToTaskResponse() {
+        LocalDateTime startDate = LocalDateTime.now().minusDays(1);
+        LocalDateTime endDate = LocalDateTime.now().plusDays(1);
+
+        List<TaskResponse> foundTasks = taskRepository.findPage(OWNER, startDate, endDate, false, PageRequest.of(0, 10));
+        assertThat(foundTasks).isNotEmpty();
+        assertThat(foundTasks)
+                .extracting(TaskResponse::getId)
+                .contains(testTask.getId());
+        assertThat(foundTasks)
+                .extracting(TaskResponse::getDate)
+                .isSorted();
+    }
+
+    @Test
+    public void whenFindProjectedPageReadsOnlyRequestedColumns() {
+        LocalDateTime startDate = LocalDateTime.now().minusDays(1);
+        LocalDateTime endDate = LocalDateTime.now().plusDays(1);
+
+        List<TaskResponse> foundTasks = taskRepository.findProjectedPage(OWNER, EnumSet.of(TaskField.TITLE), startDate, endDate, false,
+                null, null, 10);
+        assertThat(foundTasks)
+                .filteredOn(task -> task.getId().equals(testTask.getId()))
+                .singleElement()
+                .satisfies(task -> {
+                    assertThat(task.getTitle()).isEqualTo(testTask.getTitle());
+                    assertThat(task.getDescription()).isNull();
+                    assertThat(task.getDate()).isEqualTo(testTask.getDate());
+                });
+
+        List<TaskResponse> afterTestTask = taskRepository.findProjectedPage(OWNER, EnumSet.of(TaskField.TITLE), startDate, endDate, false,
+                testTask.getDate(), testTask.getId(), 10);
+        assertThat(afterTestTask).extracting(TaskResponse::getId).doesNotContain(testTask.getId());
+    }
 }
@@ -0,0 +1,91 @@
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.example.taskService.dto.TaskResponse;
+import org.example.taskService.repository.TaskSearchRepositoryImpl;
+import org.example.taskService.service.TaskOwnerContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the search migration and the {@code tsvector} search against an embedded PostgreSQL.
+ * Runs only with {@code mvn test -Ppostgres-test}; PostgreSQL refuses to start as root, so run it as a regular user.
+ */
+@Tag("postgres")
+class TaskSearchRepositoryTest {
+    private static final String OWNER = TaskOwnerContext.DEFAULT_OWNER;
+    private EmbeddedPostgres postgres;
+    private JdbcTemplate jdbcTemplate;
+    private TaskSearchRepositoryImpl searchRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbcTemplate.execute("CREATE TABLE tasks (id BIGINT PRIMARY KEY, owner VARCHAR(64) NOT NULL DEFAULT 'default', title VARCHAR(255) NOT NULL, description TEXT, "
+                + "date TIMESTAMP(6), completed BOOLEAN NOT NULL DEFAULT false, version BIGINT NOT NULL DEFAULT 0)");
+        insertTask(1, "Groceries", "Milk, bread and eggs", "2023-10-09 12:00", false);
+        insertTask(2, "Buy milk", "On the way home", "2023-10-10 12:00", false);
+
+        try (InputStream script = getClass().getResourceAsStream("/db/migration/tasks-search.sql")) {
+            jdbcTemplate.execute(new String(script.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        searchRepository = new TaskSearchRepositoryImpl(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void ranksTitleMatchesFirst() {
+        List<TaskResponse> found = searchRepository.search(OWNER, "milk", null, null, null, 10);
+
+        assertEquals(List.of("Buy milk", "Groceries"), found.stream().map(TaskResponse::getTitle).toList());
+    }
+
+    @Test
+    void vectorFollowsUpdatesAndFilters() {
+        jdbcTemplate.update("UPDATE tasks SET title = 'Call the bank', completed = true WHERE id = 2");
+
+        assertEquals(List.of("Groceries"), titles(searchRepository.search(OWNER, "milk", null, null, null, 10)));
+        assertEquals(List.of("Call the bank"), titles(searchRepository.search(OWNER, "bank", null, null, true, 10)));
+        assertTrue(searchRepository.search(OWNER, "bank", null, null, false, 10).isEmpty());
+        assertTrue(searchRepository.search("someone-else", "milk", null, null, null, 10).isEmpty());
+        assertTrue(searchRepository.search(OWNER, "milk", LocalDateTime.parse("2023-10-10T00:00:00"), null, null, 10).isEmpty());
+    }
+
+    @Test
+    void usesTheGinIndex() {
+        // Both statements must share a connection; the table is too small for the planner to pick the index by itself.
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            session.execute("SET enable_seqscan = off");
+            return String.join("\n", session.queryForList(
+                    "EXPLAIN SELECT id FROM tasks WHERE search_vector @@ websearch_to_tsquery('simple', 'milk')", String.class));
+        });
+
+        assertTrue(plan.contains("tasks_search_idx"), plan);
+    }
+
+    private List<String> titles(List<TaskResponse> tasks) {
+        return tasks.stream().map(TaskResponse::getTitle).toList();
+    }
+
+    private void insertTask(long id, String title, String description, String date, boolean completed) {
+        jdbcTemplate.update("INSERT INTO tasks (id, title, description, date, completed) VALUES (?, ?, ?, ?::timestamp, ?)",
+                id, title, description, date, completed);
+    }
+}
@@ -1,37 +1,79 @@
 import org.example.taskService.model.Task;
+import org.example.taskService.dto.TaskBatchItemResult;
+import org.example.taskService.dto.TaskBatchItemStatus;
+import org.example.taskService.dto.TaskBucket;
+import org.example.taskService.dto.TaskBucketCounts;
+import org.example.taskService.dto.TaskChangeType;
+import org.example.taskService.dto.TaskCounts;
 import org.example.taskService.dto.TaskCreationRequest;
+import org.example.taskService.dto.TaskField;
+import org.example.taskService.dto.TaskPage;
 import org.example.taskService.dto.TaskUpdateRequest;
 import org.example.taskService.dto.TaskResponse;
+import org.example.taskService.dto.TaskStatisticsResponse;
+import org.example.taskService.dto.TaskSummaryResponse;
+import org.example.taskService.model.TaskDailyCount;
+import org.example.taskService.repository.ArchivedTaskRepository;
+import org.example.taskService.repository.TaskDailyCountRepository;
 import org.example.taskService.repository.TaskRepository;
+import org.example.taskService.service.TaskChangeFeed;
+import org.example.taskService.service.TaskChangeVersion;
+import org.example.taskService.service.TaskOwnerContext;
+import org.example.taskService.service.TaskService;
 import org.example.taskService.service.TaskServiceImpl;
+import org.example.taskService.exception.InvalidCursorException;
+import org.example.taskService.exception.InvalidIntervalException;
+import org.example.taskService.exception.InvalidSearchQueryException;
 import org.example.taskService.exception.TaskNotFoundException;
+import org.example.taskService.exception.TaskVersionMismatchException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class TaskServiceImplTest {
+    private static final String OWNER = TaskOwnerContext.DEFAULT_OWNER;
 
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private TaskDailyCountRepository taskDailyCountRepository;
+
+    @Mock
+    private ArchivedTaskRepository archivedTaskRepository;
+
+    @Mock
+    private TaskChangeVersion taskChangeVersion;
+
+    @Mock
+    private TaskChangeFeed taskChangeFeed;
+
     @InjectMocks
     private TaskServiceImpl taskService;
 
@@ -45,6 +87,7 @@ class TaskServiceImplTest {
         TaskCreationRequest creationRequest = new TaskCreationRequest("Test Title", "Test Description");
         Task mockTask = new Task();
         mockTask.setId(1L);
+        mockTask.setOwner(OWNER);
         mockTask.setTitle("Test Title");
         mockTask.setDescription("Test Description");
         mockTask.setDate(LocalDateTime.now());
@@ -57,62 +100,191 @@ class TaskServiceImplTest {
         assertNotNull(response);
         assertEquals(mockTask.getTitle(), response.getTitle());
         assertEquals(mockTask.getDescription(), response.getDescription());
+        verify(taskDailyCountRepository).addToDate(OWNER, mockTask.getDate().toLocalDate(), 0, 1);
+        verify(taskChangeFeed).publishAfterCommit(TaskChangeType.CREATED, 1L, response);
     }
 
     @Test
     void updateTask() {
         TaskUpdateRequest updateRequest = new TaskUpdateRequest("Updated Title", "Updated Description");
-        Task existingTask = new Task();
-        existingTask.setId(1L);
-        existingTask.setTitle("Original Title");
-        existingTask.setDescription("Original Description");
-        existingTask.setDate(LocalDateTime.now());
-        existingTask.setCompleted(false);
+        TaskResponse updatedTask = new TaskResponse(1L, "Updated Title", "Updated Description", LocalDateTime.now(), false, 1L);
 
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(existingTask));
-        when(taskRepository.save(any(Task.class))).thenReturn(existingTask);
+        when(taskRepository.updateTitleAndDescription(OWNER, 1L, "Updated Title", "Updated Description")).thenReturn(1);
+        when(taskRepository.findResponseById(OWNER, 1L)).thenReturn(Optional.of(updatedTask));
 
         TaskResponse response = taskService.updateTask(1L, updateRequest);
 
         assertNotNull(response);
         assertEquals(updateRequest.getTitle(), response.getTitle());
         assertEquals(updateRequest.getDescription(), response.getDescription());
+        verify(taskChangeVersion).bumpAfterCommit();
     }
 
     @Test
-    void toggleTaskCompletion() {
-        Task existingTask = new Task();
-        existingTask.setId(1L);
-        existingTask.setCompleted(false);
+    void updateTaskAtStaleVersion() {
+        TaskUpdateRequest updateRequest = new TaskUpdateRequest("Updated Title", "Updated Description");
+
+        when(taskRepository.updateTitleAndDescriptionAtVersion(OWNER, 1L, 3L, "Updated Title", "Updated Description")).thenReturn(0);
+        when(taskRepository.existsByOwnerAndId(OWNER, 1L)).thenReturn(true);
 
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(existingTask));
-        when(taskRepository.save(any(Task.class))).thenReturn(existingTask);
+        assertThrows(TaskVersionMismatchException.class, () -> taskService.updateTask(1L, updateRequest, 3L));
+        verify(taskChangeVersion, never()).bumpAfterCommit();
+    }
+
+    @Test
+    void toggleTaskCompletion() {
+        when(taskRepository.toggleCompletion(OWNER, 1L)).thenReturn(1);
 
         taskService.toggleTaskCompletion(1L);
 
-        assertTrue(existingTask.isCompleted());
+        verify(taskRepository).toggleCompletion(OWNER, 1L);
+        verify(taskRepository, never()).findById(any());
+        verify(taskDailyCountRepository).applyToggles(OWNER, List.of(1L));
+    }
+
+    @Test
+    void toggleTaskCompletionNotFound() {
+        when(taskRepository.toggleCompletion(OWNER, 1L)).thenReturn(0);
+
+        assertThrows(TaskNotFoundException.class, () -> taskService.toggleTaskCompletion(1L));
     }
 
     @Test
     void deleteTask() {
-        when(taskRepository.existsById(1L)).thenReturn(true);
+        Map<LocalDate, long[]> deletedCounts = Map.of(LocalDate.of(2023, 10, 10), new long[]{1, 0});
+        when(taskRepository.lockDailyCounts(OWNER, List.of(1L))).thenReturn(deletedCounts);
+        when(taskRepository.deleteTaskById(OWNER, 1L)).thenReturn(1);
 
         taskService.deleteTask(1L);
 
-        verify(taskRepository).deleteById(1L);
+        InOrder inOrder = inOrder(taskRepository, taskDailyCountRepository);
+        inOrder.verify(taskRepository).lockDailyCounts(OWNER, List.of(1L));
+        inOrder.verify(taskRepository).deleteTaskById(OWNER, 1L);
+        inOrder.verify(taskDailyCountRepository).applyDeletes(OWNER, deletedCounts);
+    }
+
+    @Test
+    void deleteTaskNotFound() {
+        when(taskRepository.lockDailyCounts(OWNER, List.of(1L))).thenReturn(Map.of());
+        when(taskRepository.deleteTaskById(OWNER, 1L)).thenReturn(0);
+
+        assertThrows(TaskNotFoundException.class, () -> taskService.deleteTask(1L));
+        verify(taskDailyCountRepository, never()).applyDeletes(any(), any());
+    }
+
+    @Test
+    void toggleTasksCompletionReportsMissingIds() {
+        when(taskRepository.batchToggleCompletion(OWNER, List.of(1L, 2L))).thenReturn(new int[]{1, 0});
+
+        List<TaskBatchItemResult> results = taskService.toggleTasksCompletion(List.of(1L, 2L));
+
+        assertEquals(TaskBatchItemStatus.TOGGLED, results.get(0).getStatus());
+        assertEquals(1L, results.get(0).getId());
+        assertEquals(TaskBatchItemStatus.NOT_FOUND, results.get(1).getStatus());
+        assertEquals(2L, results.get(1).getId());
+    }
+
+    @Test
+    void toggleTasksCompletionSkipsCountersForEvenToggles() {
+        when(taskRepository.batchToggleCompletion(OWNER, List.of(1L, 2L, 1L))).thenReturn(new int[]{1, 1, 1});
+
+        taskService.toggleTasksCompletion(List.of(1L, 2L, 1L));
+
+        verify(taskDailyCountRepository).applyToggles(OWNER, List.of(2L));
+    }
+
+    @Test
+    void toggleTasksCompletionCoalescedCancelsEvenToggles() {
+        when(taskRepository.batchToggleCompletion(OWNER, List.of(2L, 3L))).thenReturn(new int[]{1, 0});
+        when(taskRepository.findExistingIds(OWNER, List.of(1L))).thenReturn(List.of(1L));
+
+        List<TaskBatchItemResult> results = taskService.toggleTasksCompletionCoalesced(List.of(1L, 2L, 1L, 3L));
+
+        assertEquals(List.of(TaskBatchItemStatus.TOGGLED, TaskBatchItemStatus.TOGGLED, TaskBatchItemStatus.TOGGLED, TaskBatchItemStatus.NOT_FOUND),
+                results.stream().map(TaskBatchItemResult::getStatus).toList());
+        verify(taskDailyCountRepository).applyToggles(OWNER, List.of(2L, 3L));
+        verify(taskChangeFeed).publishAfterCommit(TaskChangeType.TOGGLED, 2L, null);
+        verify(taskChangeFeed, never()).publishAfterCommit(TaskChangeType.TOGGLED, 1L, null);
+    }
+
+    @Test
+    void sparseFieldsUseTheProjectedQuery() {
+        EnumSet<TaskField> fields = EnumSet.of(TaskField.TITLE, TaskField.COMPLETED);
+        when(taskRepository.findProjectedPage(eq(OWNER), eq(fields), any(LocalDateTime.class), any(LocalDateTime.class), eq(false), eq(null), eq(null), eq(11)))
+                .thenReturn(List.of(new TaskResponse(1L, "Title", null, LocalDateTime.now(), false, 0L)));
+
+        TaskPage page = taskService.getTasksByWeekAndCompletionStatus(false, false, null, 10, fields);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getItems().get(0).getDescription());
+        verify(taskRepository, never()).findPage(any(), any(LocalDateTime.class), any(LocalDateTime.class), eq(false), any(Pageable.class));
+    }
+
+    @Test
+    void getTaskThrowsForMissingTask() {
+        when(taskRepository.findResponseById(OWNER, 1L)).thenReturn(Optional.empty());
+
+        assertThrows(TaskNotFoundException.class, () -> taskService.getTask(1L));
+    }
+
+    @Test
+    void getTaskSummary() {
+        LocalDate today = LocalDate.now();
+        when(taskDailyCountRepository.findByOwnerAndDateBetween(OWNER, today.minusMonths(1), today.plusMonths(1))).thenReturn(List.of(
+                new TaskDailyCount(OWNER, today.minusDays(20), 1, 2),
+                new TaskDailyCount(OWNER, today.minusDays(3), 3, 4),
+                new TaskDailyCount(OWNER, today, 5, 6),
+                new TaskDailyCount(OWNER, today.plusDays(10), 7, 8)));
+
+        TaskSummaryResponse summary = taskService.getTaskSummary();
+
+        assertEquals(new TaskCounts(5, 6), summary.getToday());
+        assertEquals(new TaskCounts(8, 10), summary.getWeek());
+        assertEquals(new TaskCounts(9, 12), summary.getMonth());
+        assertEquals(new TaskCounts(5, 6), summary.getUpcomingWeek());
+        assertEquals(new TaskCounts(12, 14), summary.getUpcomingMonth());
+    }
+
+    @Test
+    void getTaskStatisticsAddsArchivedTasksToTheirBuckets() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 1, 31, 23, 59);
+        when(taskRepository.countByBucket(OWNER, TaskBucket.WEEK, start, end, null)).thenReturn(List.of(
+                new TaskBucketCounts(LocalDateTime.of(2024, 1, 8, 0, 0), 1, 2),
+                new TaskBucketCounts(LocalDateTime.of(2024, 1, 15, 0, 0), 3, 4)));
+        when(taskRepository.countArchivedByBucket(OWNER, TaskBucket.WEEK, start, end)).thenReturn(List.of(
+                new TaskBucketCounts(LocalDateTime.of(2024, 1, 1, 0, 0), 5, 0),
+                new TaskBucketCounts(LocalDateTime.of(2024, 1, 15, 0, 0), 6, 0)));
+
+        TaskStatisticsResponse statistics = taskService.getTaskStatistics(start, end, TaskBucket.WEEK, null, true);
+
+        assertEquals(List.of(
+                new TaskBucketCounts(LocalDateTime.of(2024, 1, 1, 0, 0), 5, 0),
+                new TaskBucketCounts(LocalDateTime.of(2024, 1, 8, 0, 0), 1, 2),
+                new TaskBucketCounts(LocalDateTime.of(2024, 1, 15, 0, 0), 9, 4)), statistics.getBuckets());
+        assertEquals(TaskBucket.WEEK, statistics.getBucket());
+    }
+
+    @Test
+    void getTaskStatisticsRejectsTooManyBuckets() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        assertThrows(InvalidIntervalException.class,
+                () -> taskService.getTaskStatistics(start, start.plusHours(TaskService.MAX_STATISTICS_BUCKETS), TaskBucket.HOUR, null, false));
+        assertThrows(InvalidIntervalException.class,
+                () -> taskService.getTaskStatistics(start, start.minusDays(1), TaskBucket.DAY, null, false));
+        verify(taskRepository, never()).countByBucket(any(), any(), any(), any(), any());
     }
 
     @Test
     void getTasksByDateAndCompletionStatus() {
         LocalDateTime date = LocalDateTime.now();
-        Task task = new Task();
-        task.setId(1L);
-        task.setDate(date);
-        task.setCompleted(true);
+        TaskResponse task = new TaskResponse(1L, null, null, date, true, 0L);
 
-        when(taskRepository.findByDateAndCompleted(date, true)).thenReturn(Collections.singletonList(task));
+        when(taskRepository.findPage(eq(OWNER), eq(date), eq(date), eq(true), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(task));
 
-        var tasks = taskService.getTasksByDateAndCompletionStatus(date, true);
+        var tasks = taskService.getTasksByDateAndCompletionStatus(date, true, null, TaskService.DEFAULT_PAGE_SIZE, TaskField.ALL).getItems();
 
         assertFalse(tasks.isEmpty());
         assertEquals(1, tasks.size());
@@ -122,12 +294,12 @@ class TaskServiceImplTest {
     void getUpcomingTasksByWeekAndCompletionStatus() {
         LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
         LocalDateTime weekLater = now.plusWeeks(1).truncatedTo(ChronoUnit.SECONDS);
-        Task upcomingTask = createTestTask(1L, "Upcoming Week Task", weekLater, false);
+        TaskResponse upcomingTask = createTestTaskResponse(1L, "Upcoming Week Task", weekLater, false);
 
-        when(taskRepository.findByDateBetweenAndCompleted(any(LocalDateTime.class), any(LocalDateTime.class), eq(false)))
+        when(taskRepository.findPage(eq(OWNER), any(LocalDateTime.class), any(LocalDateTime.class), eq(false), any(Pageable.class)))
                 .thenReturn(Collections.singletonList(upcomingTask));
 
-        List<TaskResponse> tasks = taskService.getUpcomingTasksByWeekAndCompletionStatus(false);
+        List<TaskResponse> tasks = taskService.getUpcomingTasksByWeekAndCompletionStatus(false, false, null, TaskService.DEFAULT_PAGE_SIZE, TaskField.ALL).getItems();
 
         assertFalse(tasks.isEmpty());
         assertEquals(1, tasks.size());
@@ -138,31 +310,105 @@ class TaskServiceImplTest {
     void getUpcomingTasksByMonthAndCompletionStatus() {
         LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
         LocalDateTime monthLater = now.plusMonths(1).truncatedTo(ChronoUnit.SECONDS);
-        Task upcomingTask = createTestTask(2L, "Upcoming Month Task", monthLater, true);
+        TaskResponse upcomingTask = createTestTaskResponse(2L, "Upcoming Month Task", monthLater, true);
 
-        when(taskRepository.findByDateBetweenAndCompleted(any(LocalDateTime.class), any(LocalDateTime.class), eq(true)))
+        when(taskRepository.findPage(eq(OWNER), any(LocalDateTime.class), any(LocalDateTime.class), eq(true), any(Pageable.class)))
                 .thenReturn(Collections.singletonList(upcomingTask));
 
-        List<TaskResponse> tasks = taskService.getUpcomingTasksByMonthAndCompletionStatus(true);
+        List<TaskResponse> tasks = taskService.getUpcomingTasksByMonthAndCompletionStatus(true, false, null, TaskService.DEFAULT_PAGE_SIZE, TaskField.ALL).getItems();
 
         assertFalse(tasks.isEmpty());
         assertEquals(1, tasks.size());
         assertEquals("Upcoming Month Task", tasks.get(0).getTitle());
     }
 
-    private Task createTestTask(Long id, String title, LocalDateTime date, boolean completed) {
-        Task task = new Task();
-        task.setId(id);
-        task.setTitle(title);
-        task.setDescription("Test Description");
-        task.setDate(date);
-        task.setCompleted(completed);
-        return task;
+    @Test
+    void getTasksByWeekAndCompletionStatusReturnsNextCursorWhenMoreRowsExist() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        TaskResponse first = createTestTaskResponse(1L, "First", now.minusDays(2), false);
+        TaskResponse second = createTestTaskResponse(2L, "Second", now.minusDays(1), false);
+
+        when(taskRepository.findPage(eq(OWNER), any(LocalDateTime.class), any(LocalDateTime.class), eq(false), any(Pageable.class)))
+                .thenReturn(List.of(first, second));
+
+        TaskPage page = taskService.getTasksByWeekAndCompletionStatus(false, false, null, 1, TaskField.ALL);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals("First", page.getItems().get(0).getTitle());
+        assertNotNull(page.getNextCursor());
+
+        when(taskRepository.findPageAfter(eq(OWNER), any(LocalDateTime.class), any(LocalDateTime.class), eq(false),
+                eq(first.getDate()), eq(first.getId()), any(Pageable.class)))
+                .thenReturn(List.of(second));
+
+        TaskPage nextPage = taskService.getTasksByWeekAndCompletionStatus(false, false, page.getNextCursor(), 1, TaskField.ALL);
+
+        assertEquals(1, nextPage.getItems().size());
+        assertEquals("Second", nextPage.getItems().get(0).getTitle());
+        assertNull(nextPage.getNextCursor());
+    }
+
+    @Test
+    void getTasksIncludingArchivedMergesBothTablesInPageOrder() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime start = now.minusYears(1);
+        TaskResponse archived = createTestTaskResponse(1L, "Archived", now.minusMonths(6), true);
+        TaskResponse recent = createTestTaskResponse(3L, "Recent", now.minusDays(1), true);
+        TaskResponse older = createTestTaskResponse(2L, "Older archived", now.minusMonths(5), true);
+
+        when(taskRepository.findPage(eq(OWNER), eq(start), eq(now), eq(true), any(Pageable.class)))
+                .thenReturn(List.of(recent));
+        when(archivedTaskRepository.findPage(eq(OWNER), eq(start), eq(now), any(Pageable.class)))
+                .thenReturn(List.of(archived, older));
+
+        TaskPage page = taskService.getTasksIncludingArchived(start, now, true, null, 2, TaskField.ALL);
+
+        assertEquals(List.of("Archived", "Older archived"), page.getItems().stream().map(TaskResponse::getTitle).toList());
+        assertNotNull(page.getNextCursor());
+    }
+
+    @Test
+    void getTasksIncludingArchivedSkipsArchiveForOpenTasks() {
+        LocalDateTime now = LocalDateTime.now();
+
+        when(taskRepository.findPage(eq(OWNER), any(LocalDateTime.class), any(LocalDateTime.class), eq(false), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+
+        taskService.getTasksIncludingArchived(now.minusYears(1), now, false, null, 10, TaskField.ALL);
+
+        verify(archivedTaskRepository, never()).findPage(any(), any(LocalDateTime.class), any(LocalDateTime.class), any(Pageable.class));
+    }
+
+    @Test
+    void searchTasksCapsLimit() {
+        TaskResponse task = createTestTaskResponse(1L, "Buy milk", LocalDateTime.now(), false);
+
+        when(taskRepository.search(OWNER, "milk", null, null, null, TaskService.MAX_PAGE_SIZE)).thenReturn(List.of(task));
+
+        TaskPage page = taskService.searchTasks(" milk ", null, null, null, 10_000);
+
+        assertEquals(1, page.getItems().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void searchTasksRejectsBlankQuery() {
+        assertThrows(InvalidSearchQueryException.class, () -> taskService.searchTasks(" ", null, null, null, 10));
+        verify(taskRepository, never()).search(any(), any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void invalidCursor() {
+        assertThrows(InvalidCursorException.class, () -> taskService.getTasksByWeekAndCompletionStatus(false, false, "not-a-cursor", 10, TaskField.ALL));
+    }
+
+    private TaskResponse createTestTaskResponse(Long id, String title, LocalDateTime date, boolean completed) {
+        return new TaskResponse(id, title, "Test Description", date, completed, 0L);
     }
 
     @Test
     void taskNotFound() {
-        when(taskRepository.findById(1L)).thenThrow(new TaskNotFoundException(1L));
+        when(taskRepository.updateTitleAndDescription(OWNER, 1L, "Title", "Description")).thenReturn(0);
 
         assertThrows(TaskNotFoundException.class, () -> taskService.updateTask(1L, new TaskUpdateRequest("Title", "Description")));
     }
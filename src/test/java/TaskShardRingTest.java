@@ -0,0 +1,52 @@
+import org.example.taskService.config.TaskShardRing;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TaskShardRingTest {
+    private static final int OWNERS = 10_000;
+
+    @Test
+    void sameShardsGiveTheSameAssignment() {
+        TaskShardRing ring = new TaskShardRing(List.of("main", "second", "third"), 1024);
+        TaskShardRing sameRing = new TaskShardRing(List.of("third", "main", "second"), 1024);
+
+        for (int i = 0; i < OWNERS; i++) {
+            assertEquals(ring.shardFor("owner-" + i), sameRing.shardFor("owner-" + i));
+        }
+    }
+
+    @Test
+    void ownersSpreadEvenly() {
+        TaskShardRing ring = new TaskShardRing(List.of("main", "second", "third", "fourth"), 1024);
+        int[] counts = new int[4];
+
+        for (int i = 0; i < OWNERS; i++) {
+            counts[List.of("main", "second", "third", "fourth").indexOf(ring.shardFor("owner-" + i))]++;
+        }
+
+        for (int count : counts) {
+            assertTrue(Math.abs(count - OWNERS / 4) < OWNERS / 4 * 0.15, "owners per shard: " + count);
+        }
+    }
+
+    @Test
+    void addingAShardMovesOnlyItsShareOfOwnersToIt() {
+        TaskShardRing before = new TaskShardRing(List.of("main", "second", "third"), 1024);
+        TaskShardRing after = new TaskShardRing(List.of("main", "second", "third", "fourth"), 1024);
+        int moved = 0;
+
+        for (int i = 0; i < OWNERS; i++) {
+            String owner = "owner-" + i;
+            if (!before.shardFor(owner).equals(after.shardFor(owner))) {
+                assertEquals("fourth", after.shardFor(owner));
+                moved++;
+            }
+        }
+
+        assertTrue(Math.abs(moved - OWNERS / 4) < OWNERS / 4 * 0.15, "owners moved: " + moved);
+    }
+}
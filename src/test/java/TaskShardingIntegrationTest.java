@@ -0,0 +1,135 @@
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.taskService.ApplicationRunner;
+import org.example.taskService.config.TaskShardRoutingDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the application against two embedded databases, the main shard and a second one, and checks each
+ * owner's tasks land on and are read from its own shard only.
+ */
+@SpringBootTest(classes = ApplicationRunner.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard-main;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "task.sharding.enabled=true",
+        "task.sharding.shards.second.url=" + TaskShardingIntegrationTest.SECOND_URL,
+        "management.endpoints.web.exposure.include=taskshards"})
+@AutoConfigureMockMvc
+class TaskShardingIntegrationTest {
+    static final String SECOND_URL = "jdbc:h2:mem:shard-second;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private HikariDataSource taskMainShardDataSource;
+
+    @Autowired
+    private TaskShardRoutingDataSource taskShardRoutingDataSource;
+
+    private final JdbcTemplate second = new JdbcTemplate(new DriverManagerDataSource(SECOND_URL, "sa", ""));
+    private JdbcTemplate main;
+    private String mainOwner;
+    private String secondOwner;
+
+    /**
+     * Prepares the second shard like tasks-sharding.sql would: the main shard's schema with its own id range.
+     */
+    @BeforeEach
+    public void setup() {
+        main = new JdbcTemplate(taskMainShardDataSource);
+        main.execute("DELETE FROM tasks");
+        main.execute("DELETE FROM tasks_archive");
+        main.execute("DELETE FROM task_daily_counts");
+        second.execute("DROP ALL OBJECTS");
+        main.queryForList("SCRIPT NODATA", String.class).forEach(second::execute);
+        second.execute("ALTER SEQUENCE tasks_id_seq RESTART WITH 1099511627776");
+        mainOwner = ownerOn("main");
+        secondOwner = ownerOn("second");
+    }
+
+    @Test
+    public void testOwnersAreServedByTheirShardOnly() throws Exception {
+        createTask(mainOwner, "Main Task");
+        createTask(secondOwner, "Second Task");
+
+        assertEquals(List.of(mainOwner), main.queryForList("SELECT owner FROM tasks", String.class));
+        assertEquals(List.of(secondOwner), second.queryForList("SELECT owner FROM tasks", String.class));
+        assertEquals(1L, second.queryForObject("SELECT open_count FROM task_daily_counts WHERE owner = ?", Long.class, secondOwner));
+
+        mockMvc.perform(get("/api/v1/tasks/filtered").header("X-Task-Owner", secondOwner)
+                        .param("interval", "today").param("completed", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("Second Task"));
+        mockMvc.perform(get("/api/v1/tasks/summary").header("X-Task-Owner", secondOwner))
+                .andExpect(jsonPath("$.today.open").value(1));
+    }
+
+    @Test
+    public void testRebalanceMovesOwnersToTheirShard() throws Exception {
+        // tasks stored on the main shard before the second shard was added
+        main.update("INSERT INTO tasks (id, owner, title, description, date, completed, version) VALUES (?, ?, ?, ?, ?, FALSE, 0)",
+                7L, secondOwner, "Moved Task", "Stored before sharding.", LocalDateTime.now());
+        main.update("INSERT INTO task_daily_counts (owner, date, completed_count, open_count) VALUES (?, CURRENT_DATE, 0, 1)", secondOwner);
+        createTask(mainOwner, "Main Task");
+
+        mockMvc.perform(get("/actuator/taskshards"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].owner").value(secondOwner))
+                .andExpect(jsonPath("$[0].source").value("main"))
+                .andExpect(jsonPath("$[0].target").value("second"));
+
+        mockMvc.perform(post("/actuator/taskshards"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+
+        assertEquals(List.of(mainOwner), main.queryForList("SELECT owner FROM tasks", String.class));
+        assertEquals(0, main.queryForObject("SELECT count(*) FROM task_daily_counts WHERE owner = ?", Integer.class, secondOwner));
+        Map<String, Object> moved = second.queryForMap("SELECT id, title FROM tasks WHERE owner = ?", secondOwner);
+        assertEquals(7L, ((Number) moved.get("id")).longValue());
+        mockMvc.perform(get("/api/v1/tasks/7").header("X-Task-Owner", secondOwner))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Moved Task"));
+        mockMvc.perform(get("/api/v1/tasks/summary").header("X-Task-Owner", secondOwner))
+                .andExpect(jsonPath("$.today.open").value(1));
+        mockMvc.perform(get("/actuator/taskshards"))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    private String ownerOn(String shard) {
+        for (int i = 0; ; i++) {
+            if (taskShardRoutingDataSource.shardOf("owner-" + i).equals(shard)) {
+                return "owner-" + i;
+            }
+        }
+    }
+
+    private void createTask(String owner, String title) throws Exception {
+        mockMvc.perform(post("/api/v1/tasks")
+                        .header("X-Task-Owner", owner)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"" + title + "\", \"description\": \"Sharded.\"}"))
+                .andExpect(status().isCreated());
+    }
+}
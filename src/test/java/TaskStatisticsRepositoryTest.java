@@ -0,0 +1,68 @@
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.example.taskService.dto.TaskBucket;
+import org.example.taskService.dto.TaskBucketCounts;
+import org.example.taskService.repository.TaskStatisticsRepositoryImpl;
+import org.example.taskService.service.TaskOwnerContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the {@code date_trunc} bucket counts against an embedded PostgreSQL.
+ * Runs only with {@code mvn test -Ppostgres-test}; PostgreSQL refuses to start as root, so run it as a regular user.
+ */
+@Tag("postgres")
+class TaskStatisticsRepositoryTest {
+    private static final String OWNER = TaskOwnerContext.DEFAULT_OWNER;
+    private static final LocalDateTime START = LocalDateTime.parse("2024-01-01T00:00:00");
+    private static final LocalDateTime END = LocalDateTime.parse("2024-01-31T23:59:59");
+    private EmbeddedPostgres postgres;
+    private JdbcTemplate jdbcTemplate;
+    private TaskStatisticsRepositoryImpl statisticsRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        postgres = EmbeddedPostgres.start();
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+        jdbcTemplate.execute("CREATE TABLE tasks (id BIGINT PRIMARY KEY, owner VARCHAR(64) NOT NULL DEFAULT 'default', "
+                + "date TIMESTAMP(6), completed BOOLEAN NOT NULL DEFAULT false)");
+        jdbcTemplate.execute("CREATE TABLE tasks_archive (id BIGINT PRIMARY KEY, owner VARCHAR(64) NOT NULL DEFAULT 'default', "
+                + "date TIMESTAMP(6), completed BOOLEAN NOT NULL DEFAULT false)");
+        jdbcTemplate.update("INSERT INTO tasks (id, date, completed) VALUES (1, '2024-01-15 09:00', true), "
+                + "(2, '2024-01-17 10:30', false), (3, '2024-01-21 23:00', false), (4, '2024-01-22 08:00', true)");
+        jdbcTemplate.update("INSERT INTO tasks (id, owner, date, completed) VALUES (5, 'someone-else', '2024-01-15 09:00', true)");
+        jdbcTemplate.update("INSERT INTO tasks_archive (id, date, completed) VALUES (6, '2024-01-16 12:00', true)");
+        statisticsRepository = new TaskStatisticsRepositoryImpl(jdbcTemplate);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void weeksStartOnMonday() {
+        assertEquals(List.of(
+                        new TaskBucketCounts(LocalDateTime.parse("2024-01-15T00:00:00"), 1, 2),
+                        new TaskBucketCounts(LocalDateTime.parse("2024-01-22T00:00:00"), 1, 0)),
+                statisticsRepository.countByBucket(OWNER, TaskBucket.WEEK, START, END, null));
+    }
+
+    @Test
+    void filtersByCompletionAndReadsTheArchive() {
+        assertEquals(List.of(new TaskBucketCounts(LocalDateTime.parse("2024-01-17T10:00:00"), 0, 1),
+                        new TaskBucketCounts(LocalDateTime.parse("2024-01-21T23:00:00"), 0, 1)),
+                statisticsRepository.countByBucket(OWNER, TaskBucket.HOUR, START, END, false));
+        assertEquals(List.of(new TaskBucketCounts(LocalDateTime.parse("2024-01-01T00:00:00"), 2, 2)),
+                statisticsRepository.countByBucket(OWNER, TaskBucket.MONTH, START, END, null));
+        assertEquals(List.of(new TaskBucketCounts(LocalDateTime.parse("2024-01-16T00:00:00"), 1, 0)),
+                statisticsRepository.countArchivedByBucket(OWNER, TaskBucket.DAY, START, END));
+    }
+}
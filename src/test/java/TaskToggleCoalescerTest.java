@@ -0,0 +1,112 @@
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.taskService.config.TaskToggleProperties;
+import org.example.taskService.dto.TaskBatchItemResult;
+import org.example.taskService.dto.TaskBatchItemStatus;
+import org.example.taskService.exception.TaskNotFoundException;
+import org.example.taskService.service.TaskService;
+import org.example.taskService.service.TaskToggleCoalescer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskToggleCoalescerTest {
+
+    @Mock
+    private TaskService taskService;
+
+    private TaskToggleProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TaskToggleCoalescer coalescer;
+
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new TaskToggleProperties();
+        properties.setCoalescingEnabled(true);
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new TaskToggleCoalescer(taskService, properties, meterRegistry);
+        callers = Executors.newVirtualThreadPerTaskExecutor();
+        when(taskService.toggleTasksCompletionCoalesced(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream()
+                    .map(id -> new TaskBatchItemResult(id, id == 404L ? TaskBatchItemStatus.NOT_FOUND : TaskBatchItemStatus.TOGGLED, null))
+                    .toList();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        coalescer.close();
+    }
+
+    @Test
+    void fullGroupIsCommittedOnceAndEachCallerGetsItsOwnResult() throws Exception {
+        properties.setCoalescingWindow(Duration.ofMinutes(1));
+        properties.setMaxBatchSize(3);
+
+        Future<?> first = callers.submit(() -> coalescer.toggle(1L));
+        Future<?> second = callers.submit(() -> coalescer.toggle(1L));
+        Future<?> missing = callers.submit(() -> coalescer.toggle(404L));
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        Exception failure = assertThrows(Exception.class, () -> missing.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TaskNotFoundException.class, failure.getCause());
+        verify(taskService, times(1)).toggleTasksCompletionCoalesced(anyList());
+        verify(taskService, never()).toggleTaskCompletion(any());
+        assertEquals(3.0, meterRegistry.get("task.toggle.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    void openGroupIsCommittedWhenTheWindowEnds() {
+        properties.setCoalescingWindow(Duration.ofMillis(20));
+
+        coalescer.toggle(1L);
+
+        verify(taskService).toggleTasksCompletionCoalesced(List.of(1L));
+    }
+
+    @Test
+    void groupFailureIsRethrownToEveryCaller() {
+        properties.setCoalescingWindow(Duration.ofMillis(20));
+        IllegalStateException failure = new IllegalStateException("database unavailable");
+        when(taskService.toggleTasksCompletionCoalesced(anyList())).thenThrow(failure);
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> coalescer.toggle(1L)));
+    }
+
+    @Test
+    void disabledCoalescingTogglesDirectly() {
+        properties.setCoalescingEnabled(false);
+
+        coalescer.toggle(1L);
+
+        verify(taskService).toggleTaskCompletion(1L);
+        verify(taskService, never()).toggleTasksCompletionCoalesced(anyList());
+    }
+}